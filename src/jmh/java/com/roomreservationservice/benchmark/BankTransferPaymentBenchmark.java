@@ -0,0 +1,77 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.RoomReservationServiceApplication;
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
+import com.roomreservationservice.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ReservationService#handleBankTransferPayment(BankTransferPaymentEvent)} for an
+ * already confirmed reservation, which isolates the transaction description parsing, the lookup and
+ * the idempotency check. Runs against the real Spring context backed by an in-memory H2 database in
+ * PostgreSQL mode, like {@link ConfirmReservationBenchmark}; the reservation is booked and paid once
+ * during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BankTransferPaymentBenchmark {
+
+    private static final long TOTAL_AMOUNT = 250;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private BankTransferPaymentEvent validEvent;
+    private BankTransferPaymentEvent invalidEvent;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(RoomReservationServiceApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:bank_transfer_benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.web-application-type=none");
+        reservationService = context.getBean(ReservationService.class);
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        long reservationId = reservationService.confirmReservation(new ReservationRequest(null, 1, "Alex Bill",
+                startDate, startDate.plusDays(2), RoomSegment.MEDIUM, PaymentMode.BANK_TRANSFER, null, TOTAL_AMOUNT))
+                .reservationId();
+
+        validEvent = new BankTransferPaymentEvent("Attribute Description Test", 1L, 123, TOTAL_AMOUNT,
+                "1401541457 P" + reservationId);
+        invalidEvent = new BankTransferPaymentEvent("Attribute Description Test", 1L, 123, TOTAL_AMOUNT,
+                "1401541457 X" + reservationId);
+        if (!reservationService.handleBankTransferPayment(validEvent)) {
+            throw new IllegalStateException("Reservation " + reservationId + " was not confirmed during setup");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean validReference() {
+        return reservationService.handleBankTransferPayment(validEvent);
+    }
+
+    @Benchmark
+    public boolean invalidReference() {
+        return reservationService.handleBankTransferPayment(invalidEvent);
+    }
+}
@@ -0,0 +1,59 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.RoomReservationServiceApplication;
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Full confirm path, from the 30 day rule through the availability hold to the insert, against
+ * the real Spring context backed by an in-memory H2 database in PostgreSQL mode. Every invocation
+ * books a new room so the benchmark never measures the conflict path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConfirmReservationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private final AtomicInteger roomNumbers = new AtomicInteger();
+    private LocalDate startDate;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(RoomReservationServiceApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:reservation_benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.web-application-type=none");
+        reservationService = context.getBean(ReservationService.class);
+        startDate = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationResponse confirmCashReservation() {
+        ReservationRequest request = new ReservationRequest(null, roomNumbers.incrementAndGet(), "Alex Bill",
+                startDate, startDate.plusDays(3), RoomSegment.MEDIUM, PaymentMode.CASH, null, 500);
+        return reservationService.confirmReservation(request);
+    }
+}
@@ -0,0 +1,123 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.RoomReservationServiceApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test comparing the execution modes of the booking endpoint: Tomcat on platform threads, Tomcat
+ * on virtual threads, and the {@code reactive} profile (WebFlux with R2DBC). Each invocation fires a burst
+ * of concurrent credit card bookings over HTTP at a running application whose payment provider is a
+ * local stub answering after {@code providerLatencyMillis}, so request handling spends most of its time
+ * waiting on I/O. The score is the time to drain one burst; a lower score means higher throughput.
+ * <p>
+ * All modes share one in-memory H2 database per trial; the reactive mode reaches it through r2dbc-h2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ExecutionModeLoadBenchmark {
+
+    @Param({"platform", "virtual", "reactive"})
+    public String executionMode;
+
+    @Param({"1000"})
+    public int concurrentRequests;
+
+    @Param({"50"})
+    public int providerLatencyMillis;
+
+    private StubPaymentProvider paymentProvider;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private ExecutorService clients;
+    private URI confirmUri;
+    private final AtomicInteger roomNumbers = new AtomicInteger();
+    private LocalDate startDate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        paymentProvider = StubPaymentProvider.start(providerLatencyMillis);
+
+        String database = "execution_mode_" + executionMode;
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(executionMode),
+                "--reservation.r2dbc.url=r2dbc:pool:h2:mem:///" + database + "?maxSize=" + concurrentRequests
+                        + "&options=MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--reservation.r2dbc.username=sa",
+                "--reservation.r2dbc.password=",
+                "--payment.client.url=" + paymentProvider.url(),
+                "--payment.client.max-connections=" + concurrentRequests,
+                "--payment.client.call-timeout-millis=10000",
+                "--payment.client.read-timeout-millis=10000",
+                "--payment.client.bulkhead.max-concurrent-calls=" + concurrentRequests,
+                "--payment.client.bulkhead.max-wait-millis=10000",
+                "--payment.client.retry.max-retries=0"));
+        if ("reactive".equals(executionMode)) args.add("--spring.profiles.active=reactive");
+        context = SpringApplication.run(RoomReservationServiceApplication.class, args.toArray(String[]::new));
+
+        confirmUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/v1/reservations/confirm-reservation");
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder().executor(clients).build();
+        startDate = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clients.close();
+        context.close();
+        paymentProvider.close();
+    }
+
+    @Benchmark
+    public int confirmBurst() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(confirmUri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(reservationJson(roomNumbers.incrementAndGet())))
+                    .build();
+            responses.add(clients.submit(() -> httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+        }
+
+        int created = 0;
+        for (Future<Integer> response : responses) {
+            if (response.get() == 201) created++;
+        }
+        return created;
+    }
+
+    private String reservationJson(int roomNumber) {
+        return """
+                {"roomNumber":%d,"customerName":"Alex Bill","reservationStartDate":"%s","reservationEndDate":"%s",\
+                "roomSegment":"MEDIUM","paymentMode":"CREDIT_CARD","paymentReference":"4145478","totalAmount":500}"""
+                .formatted(roomNumber, startDate, startDate.plusDays(3));
+    }
+}
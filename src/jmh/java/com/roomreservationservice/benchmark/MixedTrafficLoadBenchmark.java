@@ -0,0 +1,216 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.RoomReservationServiceApplication;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
+import com.roomreservationservice.repository.OutboxEventRepository;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Self-contained load test of the whole service: the application runs with the {@code kafka} profile
+ * against an in-memory H2 database in PostgreSQL mode, an embedded KRaft broker and the
+ * {@link StubPaymentProvider}, so it needs neither Docker nor network access.
+ * <p>
+ * Every benchmark thread books over HTTP with a payment mode drawn from {@code paymentMix}
+ * (cash:credit card:bank transfer, in percent). {@code hotRoomPercent} of the requests go to three
+ * rooms of the catalogue on overlapping dates, so they compete for the same nights; the rest book
+ * rooms nobody else asks for. Every accepted bank transfer booking is followed by its payment event on
+ * {@code bank-transfer-payment-update}, which keeps the Kafka listener and the outbox relay busy too.
+ * H2 cannot run the PostgreSQL upsert behind scheduler leases, so the single instance runs without
+ * them, and the trial fails if the relay has not drained the outbox within {@value #DRAIN_TIMEOUT_SECONDS}
+ * seconds of the last request.
+ * <p>
+ * Throughput mode reports bookings per millisecond and sample mode the latency percentiles (p50, p99).
+ * The {@link Outcomes} counters split every run into created, conflicting ({@code RoomAlreadyBookedException},
+ * HTTP 409) and failed requests, from which the conflict rate follows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(64)
+public class MixedTrafficLoadBenchmark {
+
+    private static final String BANK_TRANSFER_TOPIC = "bank-transfer-payment-update";
+    private static final int[] HOT_ROOMS = {101, 102, 103};
+    private static final int HOT_WINDOW_DAYS = 14;
+    // Far above the configured hotel rooms, so uncontended bookings never meet the hot ones.
+    private static final int FIRST_COLD_ROOM = 1_000_000;
+    private static final long TOTAL_AMOUNT = 500;
+    private static final int DRAIN_TIMEOUT_SECONDS = 30;
+
+    @Param({"40:40:20"})
+    public String paymentMix;
+
+    @Param({"20"})
+    public int hotRoomPercent;
+
+    @Param({"50"})
+    public int providerLatencyMillis;
+
+    private StubPaymentProvider paymentProvider;
+    private EmbeddedKafkaKraftBroker kafkaBroker;
+    private ConfigurableApplicationContext context;
+    private KafkaProducer<String, String> bankTransferProducer;
+    private JsonMapper jsonMapper;
+    private HttpClient httpClient;
+    private URI confirmUri;
+    private int cashPercent;
+    private int creditCardPercent;
+    private final AtomicInteger coldRooms = new AtomicInteger(FIRST_COLD_ROOM);
+    private LocalDate startDate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] mix = paymentMix.split(":");
+        cashPercent = Integer.parseInt(mix[0]);
+        creditCardPercent = Integer.parseInt(mix[1]);
+        if (cashPercent + creditCardPercent + Integer.parseInt(mix[2]) != 100) {
+            throw new IllegalArgumentException("paymentMix must add up to 100: " + paymentMix);
+        }
+
+        paymentProvider = StubPaymentProvider.start(providerLatencyMillis);
+        kafkaBroker = new EmbeddedKafkaKraftBroker(1, 4, BANK_TRANSFER_TOPIC, BANK_TRANSFER_TOPIC + ".DLT",
+                "reservation-status-changed");
+        kafkaBroker.afterPropertiesSet();
+
+        context = SpringApplication.run(RoomReservationServiceApplication.class,
+                "--spring.profiles.active=kafka",
+                "--spring.kafka.bootstrap-servers=" + kafkaBroker.getBrokersAsString(),
+                "--spring.datasource.url=jdbc:h2:mem:mixed_traffic;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--reservation.scheduler.lease.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--payment.client.url=" + paymentProvider.url(),
+                "--payment.client.call-timeout-millis=10000",
+                "--payment.client.read-timeout-millis=10000",
+                "--payment.client.retry.max-retries=0");
+
+        confirmUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/v1/reservations/confirm-reservation");
+        jsonMapper = context.getBean(JsonMapper.class);
+        httpClient = HttpClient.newHttpClient();
+        bankTransferProducer = new KafkaProducer<>(
+                Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaBroker.getBrokersAsString()),
+                new StringSerializer(), new StringSerializer());
+        startDate = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        bankTransferProducer.close();
+        awaitOutboxDrained();
+        context.close();
+        kafkaBroker.destroy();
+        paymentProvider.close();
+    }
+
+    @Benchmark
+    public void book(Outcomes outcomes) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PaymentMode paymentMode = paymentMode(random.nextInt(100));
+
+        String body;
+        if (random.nextInt(100) < hotRoomPercent) {
+            LocalDate start = startDate.plusDays(random.nextInt(HOT_WINDOW_DAYS));
+            body = reservationJson(HOT_ROOMS[random.nextInt(HOT_ROOMS.length)], start, start.plusDays(1 + random.nextInt(3)), paymentMode);
+        } else {
+            body = reservationJson(coldRooms.incrementAndGet(), startDate, startDate.plusDays(2), paymentMode);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(confirmUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        switch (response.statusCode()) {
+            case 201 -> {
+                outcomes.created++;
+                if (paymentMode == PaymentMode.BANK_TRANSFER) {
+                    payByBankTransfer(jsonMapper.readTree(response.body()).get("reservationId").asLong());
+                    outcomes.bankTransfers++;
+                }
+            }
+            case 409 -> outcomes.conflicts++;
+            default -> outcomes.failures++;
+        }
+    }
+
+    private void awaitOutboxDrained() throws InterruptedException {
+        OutboxEventRepository outboxEventRepository = context.getBean(OutboxEventRepository.class);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        long pending;
+        while ((pending = outboxEventRepository.count()) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The outbox relay left " + pending + " events unpublished");
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    private PaymentMode paymentMode(int percentile) {
+        if (percentile < cashPercent) return PaymentMode.CASH;
+        if (percentile < cashPercent + creditCardPercent) return PaymentMode.CREDIT_CARD;
+        return PaymentMode.BANK_TRANSFER;
+    }
+
+    private void payByBankTransfer(long reservationId) {
+        BankTransferPaymentEvent event = new BankTransferPaymentEvent("Load test transfer", reservationId,
+                1401541457L, TOTAL_AMOUNT, "1401541457 P" + reservationId);
+        bankTransferProducer.send(new ProducerRecord<>(BANK_TRANSFER_TOPIC, String.valueOf(reservationId),
+                jsonMapper.writeValueAsString(event)));
+    }
+
+    private static String reservationJson(int roomNumber, LocalDate start, LocalDate end, PaymentMode paymentMode) {
+        return """
+                {"roomNumber":%d,"customerName":"Alex Bill","reservationStartDate":"%s","reservationEndDate":"%s",\
+                "roomSegment":"SMALL","paymentMode":"%s","paymentReference":"4145478","totalAmount":%d}"""
+                .formatted(roomNumber, start, end, paymentMode, TOTAL_AMOUNT);
+    }
+
+    /**
+     * Outcome counts per iteration, reported by JMH next to the primary score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long created;
+        public long conflicts;
+        public long failures;
+        public long bankTransfers;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            created = 0;
+            conflicts = 0;
+            failures = 0;
+            bankTransfers = 0;
+        }
+    }
+}
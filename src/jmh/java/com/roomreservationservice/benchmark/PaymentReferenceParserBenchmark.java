@@ -0,0 +1,35 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.service.banktransfer.PaymentReferenceParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass reference parser with the {@code split(" ")} and {@code substring}
+ * approach it replaced. Run with the GC profiler to see the allocation rate drop to zero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentReferenceParserBenchmark {
+
+    @Param({"1401541457 P4145478", "SEPA CT 1401541457 INV-2026-0042 P4145478", "1401541457 X4145478"})
+    public String description;
+
+    @Benchmark
+    public long scan() {
+        return PaymentReferenceParser.parseReservationId(description);
+    }
+
+    @Benchmark
+    public long split() {
+        String[] parts = description.split(" ");
+        if (parts.length < 2 || !parts[1].startsWith("P")) return -1;
+        try {
+            return Long.parseLong(parts[1].substring(1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.service.paymentstrategy.BankTransferPayment;
+import com.roomreservationservice.service.paymentstrategy.CashPayment;
+import com.roomreservationservice.service.paymentstrategy.CreditCardPayment;
+import com.roomreservationservice.service.paymentstrategy.PaymentStrategy;
+import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentStrategyFactoryBenchmark {
+
+    @Param({"CASH", "BANK_TRANSFER", "CREDIT_CARD"})
+    private PaymentMode paymentMode;
+
+    private PaymentStrategyFactory factory;
+
+    @Setup
+    public void setUp() {
+        factory = new PaymentStrategyFactory(List.of(
+                new CashPayment(),
+                new CreditCardPayment(Mockito.mock(CreditCardPaymentClient.class), false),
+                new BankTransferPayment()
+        ));
+    }
+
+    @Benchmark
+    public PaymentStrategy getStrategy() {
+        return factory.getStrategy(paymentMode);
+    }
+}
@@ -0,0 +1,73 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.RoomReservationServiceApplication;
+import com.roomreservationservice.dto.BulkReservationResponse;
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the default configuration with the {@code prod} profile on the write path that benefits
+ * most from it: a bulk booking, which inserts every reservation and its outbox row in one
+ * transaction. Needs the PostgreSQL from {@code docker-compose-dev.yaml}, since statement caching
+ * and batch rewriting are PgJDBC features; the rows it creates are removed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PersistenceProfileBenchmark {
+
+    // Far above the configured hotel rooms, so benchmark bookings never meet real ones.
+    private static final int FIRST_ROOM_NUMBER = 1_000_000;
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private JdbcTemplate jdbcTemplate;
+    private final AtomicInteger roomNumbers = new AtomicInteger(FIRST_ROOM_NUMBER);
+    private LocalDate startDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(RoomReservationServiceApplication.class,
+                "--spring.profiles.active=" + profile,
+                "--spring.main.web-application-type=none");
+        reservationService = context.getBean(ReservationService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        startDate = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM reservation_outbox WHERE reservation_id IN " +
+                "(SELECT id FROM reservations WHERE room_number >= ?)", FIRST_ROOM_NUMBER);
+        jdbcTemplate.update("DELETE FROM reservations WHERE room_number >= ?", FIRST_ROOM_NUMBER);
+        context.close();
+    }
+
+    @Benchmark
+    public BulkReservationResponse confirmBulkReservations() {
+        List<ReservationRequest> requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            requests.add(new ReservationRequest(null, roomNumbers.incrementAndGet(), "Alex Bill",
+                    startDate, startDate.plusDays(3), RoomSegment.MEDIUM, PaymentMode.CASH, null, 500));
+        }
+        return reservationService.confirmReservations(requests);
+    }
+}
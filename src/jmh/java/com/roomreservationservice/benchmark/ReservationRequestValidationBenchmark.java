@@ -0,0 +1,50 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.RoomSegment;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReservationRequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ReservationRequest validRequest;
+    private ReservationRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validRequest = new ReservationRequest(null, 101, "Alex Bill", LocalDate.now(), LocalDate.now().plusDays(3),
+                RoomSegment.EXTRA_LARGE, PaymentMode.CREDIT_CARD, "ABC123", 500);
+        invalidRequest = new ReservationRequest(null, -1, " ", LocalDate.now().minusDays(1), LocalDate.now().minusDays(1),
+                null, null, null, -1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ReservationRequest>> validRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ReservationRequest>> invalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
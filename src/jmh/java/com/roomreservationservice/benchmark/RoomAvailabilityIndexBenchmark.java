@@ -0,0 +1,102 @@
+package com.roomreservationservice.benchmark;
+
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.projection.RoomStay;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap check against an index warmed with one year of back-to-back three night stays per room,
+ * staggered by room so some rooms of the segment are free on any given night. The any-room
+ * benchmarks compare the per-segment night bit sets with probing the segment room by room, which is
+ * what clients had to do before they could leave the room number out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoomAvailabilityIndexBenchmark {
+
+    private static final String PROPERTY = "berlin";
+    private static final int ROOMS = 500;
+
+    private RoomAvailabilityIndex availabilityIndex;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        today = LocalDate.now();
+        List<RoomStay> stays = new ArrayList<>();
+        long id = 1;
+        List<Integer> rooms = new ArrayList<>(ROOMS);
+        for (int room = 1; room <= ROOMS; room++) {
+            rooms.add(room);
+            for (int day = room % 4; day < 365; day += 4) {
+                stays.add(new RoomStay(id++, PROPERTY, room, today.plusDays(day), today.plusDays(day + 3)));
+            }
+        }
+
+        ReservationRepository reservationRepository = Mockito.mock(ReservationRepository.class);
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any())).thenReturn(stays);
+        // The warmed stays are all still booked, so re-checks against the database confirm the index.
+        Mockito.when(reservationRepository.existsByPropertyIdAndRoomNumberAndDateRange(
+                Mockito.any(), Mockito.anyInt(), Mockito.any(), Mockito.any())).thenReturn(true);
+        Mockito.when(reservationRepository.findBookedRoomNumbers(Mockito.any(), Mockito.anyList(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        availabilityIndex = new RoomAvailabilityIndex(reservationRepository,
+                new HotelProperties(Map.of(), Map.of(PROPERTY, Map.of(RoomSegment.MEDIUM, rooms))),
+                ShardRouter.unsharded(ShardingProperties.UNSHARDED));
+        availabilityIndex.warmUp();
+    }
+
+    @Benchmark
+    public boolean overlapCheck() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate startDate = today.plusDays(random.nextInt(365));
+        return availabilityIndex.isOccupied(PROPERTY, random.nextInt(1, ROOMS + 1), startDate, startDate.plusDays(random.nextInt(1, 31)));
+    }
+
+    @Benchmark
+    public boolean holdAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roomNumber = random.nextInt(1, ROOMS + 1);
+        LocalDate startDate = today.plusDays(random.nextInt(365));
+        LocalDate endDate = startDate.plusDays(1);
+        boolean held = availabilityIndex.tryHold(PROPERTY, roomNumber, startDate, endDate);
+        if (held) availabilityIndex.release(PROPERTY, roomNumber, startDate, endDate);
+        return held;
+    }
+
+    @Benchmark
+    public int holdAnyRoomAndRelease() {
+        LocalDate startDate = today.plusDays(ThreadLocalRandom.current().nextInt(365));
+        LocalDate endDate = startDate.plusDays(2);
+        int roomNumber = availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, startDate, endDate);
+        if (roomNumber != RoomAvailabilityIndex.NO_ROOM) availabilityIndex.release(PROPERTY, roomNumber, startDate, endDate);
+        return roomNumber;
+    }
+
+    @Benchmark
+    public int probeEachRoomAndRelease() {
+        LocalDate startDate = today.plusDays(ThreadLocalRandom.current().nextInt(365));
+        LocalDate endDate = startDate.plusDays(2);
+        for (int roomNumber = 1; roomNumber <= ROOMS; roomNumber++) {
+            if (availabilityIndex.tryHold(PROPERTY, roomNumber, startDate, endDate)) {
+                availabilityIndex.release(PROPERTY, roomNumber, startDate, endDate);
+                return roomNumber;
+            }
+        }
+        return RoomAvailabilityIndex.NO_ROOM;
+    }
+}
@@ -0,0 +1,53 @@
+package com.roomreservationservice.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the credit card payment provider. Confirms every payment after a fixed delay,
+ * so load tests can point {@code payment.client.url} at it instead of a real provider.
+ */
+final class StubPaymentProvider implements AutoCloseable {
+
+    private static final String CONFIRMED = "{\"lastUpdateDate\":\"2026-01-31T12:00:00Z\",\"status\":\"CONFIRMED\"}";
+
+    private final HttpServer server;
+
+    private StubPaymentProvider(HttpServer server) {
+        this.server = server;
+    }
+
+    static StubPaymentProvider start(int latencyMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/payment-status", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = CONFIRMED.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return new StubPaymentProvider(server);
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/payment-status";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -1,14 +1,41 @@
 package com.roomreservationservice.config;
 
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
+@EnableConfigurationProperties({HotelProperties.class, PaymentClientProperties.class, HoldProperties.class,
+        ShardingProperties.class})
 public class AppConfig {
 
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new ShardRouter(properties.shardMap(), properties.defaultShard(), properties.shardsByIdBlock());
+    }
+
+    @Bean
+    public WebClient webClient(PaymentClientProperties properties) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("payment-client")
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.pendingAcquireTimeoutMillis()))
+                .maxIdleTime(Duration.ofMillis(properties.maxIdleTimeMillis()))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.connectTimeoutMillis())
+                .responseTimeout(Duration.ofMillis(properties.readTimeoutMillis()));
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.roomreservationservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Sizes the Hikari pool from the CPU count in the {@code prod} profile, following the HikariCP
+ * guideline of {@code cores * 2 + effective spindles}. More connections than that only adds
+ * context switching in PostgreSQL; a fixed-size pool avoids opening connections under load.
+ */
+@Slf4j
+@Configuration
+@Profile("prod")
+public class DataSourceTuningConfig {
+
+    @Bean
+    public static BeanPostProcessor hikariPoolSizingPostProcessor(
+            @Value("${reservation.datasource.connections-per-core:2}") int connectionsPerCore,
+            @Value("${reservation.datasource.effective-spindles:1}") int effectiveSpindles) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    int cores = Runtime.getRuntime().availableProcessors();
+                    int poolSize = cores * connectionsPerCore + effectiveSpindles;
+                    hikariDataSource.setMaximumPoolSize(poolSize);
+                    hikariDataSource.setMinimumIdle(poolSize);
+                    log.info("Hikari pool {} sized to {} connections for {} cores",
+                            hikariDataSource.getPoolName(), poolSize, cores);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.roomreservationservice.config;
+
+import com.roomreservationservice.enums.PaymentMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * How long an unpaid reservation keeps its room, per payment mode, e.g.
+ * {@code reservation.hold.durations.BANK_TRANSFER=48h}. Modes without a duration never expire.
+ */
+@ConfigurationProperties(prefix = "reservation.hold")
+public record HoldProperties(
+        Map<PaymentMode, Duration> durations
+) {
+    public HoldProperties {
+        durations = durations == null ? Map.of() : Map.copyOf(durations);
+    }
+
+    public Duration durationOf(PaymentMode paymentMode) {
+        return durations.get(paymentMode);
+    }
+}
@@ -0,0 +1,31 @@
+package com.roomreservationservice.config;
+
+import com.roomreservationservice.enums.RoomSegment;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Room inventory of the hotels, e.g. {@code hotel.rooms.SMALL=101,102,103}. Properties of a group with
+ * a different inventory list their own, e.g. {@code hotel.properties[IST-01].SMALL=11,12}; every other
+ * property uses {@code hotel.rooms}.
+ */
+@ConfigurationProperties(prefix = "hotel")
+public record HotelProperties(
+        Map<RoomSegment, List<Integer>> rooms,
+        Map<String, Map<RoomSegment, List<Integer>>> properties
+) {
+    public HotelProperties {
+        rooms = rooms == null ? Map.of() : Map.copyOf(rooms);
+        properties = properties == null ? Map.of() : Map.copyOf(properties);
+    }
+
+    public Map<RoomSegment, List<Integer>> roomsOf(String propertyId) {
+        return properties.getOrDefault(propertyId, rooms);
+    }
+
+    public List<Integer> roomsOf(String propertyId, RoomSegment roomSegment) {
+        return roomsOf(propertyId).getOrDefault(roomSegment, List.of());
+    }
+}
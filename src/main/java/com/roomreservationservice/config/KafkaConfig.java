@@ -1,15 +1,25 @@
 package com.roomreservationservice.config;
 
+import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
 import lombok.NonNull;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,6 +41,21 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.value-deserializer}")
     private String valueDeserializer;
 
+    @Value("${bank-transfer.listener.concurrency:1}")
+    private int listenerConcurrency;
+
+    @Value("${bank-transfer.listener.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${bank-transfer.listener.backoff-initial-millis:1000}")
+    private long backoffInitialMillis;
+
+    @Value("${bank-transfer.listener.backoff-max-millis:30000}")
+    private long backoffMaxMillis;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
     public ConsumerFactory<@NonNull String, @NonNull String> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -38,6 +63,10 @@ public class KafkaConfig {
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, keyDeserializer);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, valueDeserializer);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // Bank transfer events arrive as plain JSON without type headers.
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, BankTransferPaymentEvent.class.getName());
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, BankTransferPaymentEvent.class.getPackageName());
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
@@ -48,4 +77,44 @@ public class KafkaConfig {
         factory.setConsumerFactory(consumerFactory());
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Delivers every poll as one list so settlement files can be applied with bulk queries. A poll
+     * that fails, for instance while the database is unreachable, is redelivered with growing backoff
+     * until it succeeds, instead of being skipped after a fixed number of attempts.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<@NonNull String, @NonNull String> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<@NonNull String, @NonNull String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(listenerConcurrency);
+        ExponentialBackOff backOff = new ExponentialBackOff(backoffInitialMillis, 2.0);
+        backOff.setMaxInterval(backoffMaxMillis);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("bank-transfer-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+        return factory;
+    }
+
+    @Bean
+    public ProducerFactory<@NonNull String, @NonNull String> producerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<@NonNull String, @NonNull String> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+}
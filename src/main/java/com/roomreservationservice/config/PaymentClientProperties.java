@@ -0,0 +1,91 @@
+package com.roomreservationservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Connection, timeout and resilience settings of the credit card payment provider client,
+ * bound from {@code payment.client.*}.
+ */
+@ConfigurationProperties(prefix = "payment.client")
+public record PaymentClientProperties(
+        @DefaultValue("http://localhost:9090/host/credit-card-payment-api/payment-status")
+        String url,
+
+        @DefaultValue("2000")
+        int connectTimeoutMillis,
+
+        @DefaultValue("5000")
+        long readTimeoutMillis,
+
+        @DefaultValue("50")
+        int maxConnections,
+
+        // How long a call waits for a free pooled connection once all maxConnections are in use.
+        @DefaultValue("1000")
+        long pendingAcquireTimeoutMillis,
+
+        @DefaultValue("30000")
+        long maxIdleTimeMillis,
+
+        // Upper bound of a single attempt, on top of the connect and read timeouts.
+        @DefaultValue("6000")
+        long callTimeoutMillis,
+
+        @DefaultValue
+        Bulkhead bulkhead,
+
+        @DefaultValue
+        CircuitBreaker circuitBreaker,
+
+        @DefaultValue
+        Retry retry
+) {
+
+    public record Bulkhead(
+            @DefaultValue("25")
+            int maxConcurrentCalls,
+
+            @DefaultValue("0")
+            long maxWaitMillis
+    ) {
+    }
+
+    public record CircuitBreaker(
+            @DefaultValue("50")
+            float failureRateThreshold,
+
+            // Share of calls slower than slowCallDurationMillis that opens the breaker.
+            @DefaultValue("50")
+            float slowCallRateThreshold,
+
+            @DefaultValue("3000")
+            long slowCallDurationMillis,
+
+            @DefaultValue("20")
+            int slidingWindowSize,
+
+            @DefaultValue("10")
+            int minimumNumberOfCalls,
+
+            @DefaultValue("10000")
+            long waitInOpenStateMillis
+    ) {
+    }
+
+    /**
+     * Retries and hedging only apply to provider failures (5xx, timeouts, connection errors); the
+     * payment status lookup has no side effects, so repeating it is safe. A hedge delay of 0 disables hedging.
+     */
+    public record Retry(
+            @DefaultValue("1")
+            int maxRetries,
+
+            @DefaultValue("100")
+            long backoffMillis,
+
+            @DefaultValue("0")
+            long hedgeDelayMillis
+    ) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.roomreservationservice.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Reactive booking path, switched on with the {@code reactive} profile. Request handling moves to
+ * WebFlux on Netty and single reservations are stored over R2DBC, next to the JDBC pool that the
+ * rest of the service keeps using.
+ * <p>
+ * The R2DBC transaction manager is deliberately not a bean, so {@code @Transactional} and
+ * {@code TransactionOperations} keep resolving to the JPA transaction manager.
+ * <p>
+ * R2DBC talks to a single database, so this profile cannot be combined with {@code sharded}.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean
+    public ConnectionFactory connectionFactory(@Value("${reservation.r2dbc.url}") String url,
+                                               @Value("${reservation.r2dbc.username}") String username,
+                                               @Value("${reservation.r2dbc.password}") String password) {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
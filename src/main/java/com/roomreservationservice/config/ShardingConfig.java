@@ -0,0 +1,96 @@
+package com.roomreservationservice.config;
+
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.infrastructure.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-property deployment over several PostgreSQL instances, switched on with the {@code sharded}
+ * profile. Every shard in {@link ShardingProperties} gets its own Hikari pool, configured like
+ * {@code spring.datasource.hikari.*}, and is migrated with Flyway before the pools are put behind a
+ * {@link ShardRoutingDataSource} that replaces the single auto-configured data source.
+ * <p>
+ * Spring Boot's own Flyway run is switched off in this profile, as it would only see the default shard.
+ * The pools are not beans, so {@code DataSourceTuningConfig} does not resize them; use
+ * {@code maximum-pool-size} per shard instead. For the same reason {@link VirtualThreadConfig} leaves the
+ * routing data source alone, and with virtual threads on every pool gets its own connection permits here.
+ */
+@Slf4j
+@Configuration
+@Profile("sharded")
+public class ShardingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig shardPoolSettings() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public DataSource dataSource(ShardingProperties properties, HikariConfig shardPoolSettings,
+                                 @Value("${spring.flyway.locations:classpath:db/migration}") String[] migrationLocations,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 @Value("${reservation.virtual-threads.connection-permit-timeout-millis:60000}") long permitTimeoutMillis) {
+        if (properties.shards().isEmpty()) {
+            throw new IllegalStateException("The sharded profile needs at least one reservation.sharding.shards entry");
+        }
+
+        Set<Long> idBlocks = new HashSet<>();
+        Map<Object, Object> pools = new HashMap<>();
+        properties.shards().forEach((name, shard) -> {
+            if (!idBlocks.add(shard.idBlock())) {
+                throw new IllegalStateException("Shard " + name + " reuses id block " + shard.idBlock());
+            }
+            HikariDataSource pool = pool(name, shard, shardPoolSettings);
+            migrate(name, shard, pool, migrationLocations);
+            pools.put(name, virtualThreads
+                    ? new ConnectionPermitDataSource(pool, pool.getMaximumPoolSize(), permitTimeoutMillis)
+                    : pool);
+        });
+
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(pools);
+        dataSource.setDefaultTargetDataSource(pools.get(properties.defaultShard()));
+        dataSource.setLenientFallback(false);
+        log.info("Routing reservations over shards {}, default shard {}", pools.keySet(), properties.defaultShard());
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(String name, ShardingProperties.Shard shard, HikariConfig settings) {
+        HikariConfig config = new HikariConfig();
+        settings.copyStateTo(config);
+        config.setPoolName("HikariPool-" + name);
+        config.setJdbcUrl(shard.url());
+        config.setUsername(shard.username());
+        config.setPassword(shard.password());
+        if (shard.maximumPoolSize() > 0) config.setMaximumPoolSize(shard.maximumPoolSize());
+        return new HikariDataSource(config);
+    }
+
+    // Same settings as spring.flyway.* in application.properties, plus the shard's id block.
+    private static void migrate(String name, ShardingProperties.Shard shard, DataSource pool, String[] locations) {
+        Flyway.configure()
+                .dataSource(pool)
+                .locations(locations)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .placeholders(Map.of("id_block_start", String.valueOf(shard.idBlock() * ShardRouter.ID_BLOCK_SIZE)))
+                .load()
+                .migrate();
+        log.info("Shard {} migrated", name);
+    }
+}
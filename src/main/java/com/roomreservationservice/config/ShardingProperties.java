@@ -0,0 +1,69 @@
+package com.roomreservationservice.config;
+
+import com.roomreservationservice.infrastructure.sharding.ShardMap;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database shards of a multi-property deployment, bound from {@code reservation.sharding.*}, e.g.
+ * {@code reservation.sharding.shards.shard-a.url=jdbc:postgresql://db-a:5432/reservation_service_db}.
+ * Without shards the service runs on the single {@code spring.datasource}, seen as one shard named
+ * {@value #UNSHARDED}.
+ * <p>
+ * Every shard needs its own {@code id-block}: each shard's sequences start in a separate block of 2^40
+ * ids to keep ids unique across shards, and the block tells {@link ShardRouter#shardOfId} which shard
+ * holds an id.
+ */
+@ConfigurationProperties(prefix = "reservation.sharding")
+public record ShardingProperties(
+        Map<String, Shard> shards,
+
+        // Shard used by work that is not bound to a property; the first shard by name if not set.
+        String defaultShard,
+
+        @DefaultValue("160")
+        int virtualNodes,
+
+        // Property id -> shard, overriding the hash ring, e.g. reservation.sharding.pinned[IST-01]=shard-a
+        Map<String, String> pinned
+) {
+    public static final String UNSHARDED = "main";
+
+    public ShardingProperties {
+        shards = shards == null ? Map.of() : Map.copyOf(shards);
+        pinned = pinned == null ? Map.of() : Map.copyOf(pinned);
+        if (defaultShard == null) {
+            defaultShard = shards.isEmpty() ? UNSHARDED : shards.keySet().stream().sorted().findFirst().orElseThrow();
+        }
+    }
+
+    public ShardMap shardMap() {
+        return new ShardMap(shards.isEmpty() ? List.of(defaultShard) : shards.keySet(), virtualNodes, pinned);
+    }
+
+    public Map<Long, String> shardsByIdBlock() {
+        if (shards.isEmpty()) return Map.of(0L, defaultShard);
+        Map<Long, String> shardsByIdBlock = new HashMap<>();
+        shards.forEach((name, shard) -> shardsByIdBlock.put(shard.idBlock(), name));
+        return shardsByIdBlock;
+    }
+
+    public record Shard(
+            String url,
+            String username,
+            String password,
+
+            // 0 keeps the pool size of spring.datasource.hikari.maximum-pool-size.
+            @DefaultValue("0")
+            int maximumPoolSize,
+
+            @DefaultValue("0")
+            long idBlock
+    ) {
+    }
+}
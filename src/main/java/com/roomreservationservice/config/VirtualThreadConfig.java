@@ -0,0 +1,44 @@
+package com.roomreservationservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in virtual-thread execution mode, switched on with {@code spring.threads.virtual.enabled=true}.
+ * Spring Boot then runs Tomcat request handling and {@code @Scheduled} jobs on virtual threads, and
+ * {@link KafkaConfig} does the same for the listener containers. This class caps database access at
+ * the Hikari pool size so the extra concurrency queues in front of the pool rather than inside it.
+ * A routing data source is left alone; {@link ShardingConfig} caps each shard pool it routes to.
+ */
+@Configuration
+@ConditionalOnBooleanProperty("spring.threads.virtual.enabled")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPermitDataSourcePostProcessor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConnections,
+            @Value("${reservation.virtual-threads.connection-permit-timeout-millis:60000}") long acquireTimeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof ConnectionPermitDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    // The pool may have been resized after binding, e.g. by DataSourceTuningConfig.
+                    int permits = bean instanceof HikariDataSource hikariDataSource
+                            ? hikariDataSource.getMaximumPoolSize()
+                            : maxConnections;
+                    return new ConnectionPermitDataSource(dataSource, permits, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
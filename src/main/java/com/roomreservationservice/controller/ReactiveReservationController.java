@@ -0,0 +1,108 @@
+package com.roomreservationservice.controller;
+
+import com.roomreservationservice.dto.BulkReservationRequest;
+import com.roomreservationservice.dto.BulkReservationResponse;
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.dto.RoomAvailabilityResponse;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.repository.projection.ReservationDetails;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.availability.RoomAvailabilityService;
+import com.roomreservationservice.service.idempotency.IdempotencyService;
+import com.roomreservationservice.service.reactive.ReactiveReservationService;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * WebFlux variant of {@link ReservationController} for the {@code reactive} profile, with the same
+ * routes and responses. Nothing blocks the event loop: everything that still goes through JPA or JDBC,
+ * including the availability re-checks of holds and searches, or waits on another request is moved to
+ * the bounded elastic scheduler.
+ */
+@RestController
+@RequestMapping("/api/v1/reservations")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveReservationController {
+
+    private final ReactiveReservationService reactiveReservationService;
+    private final ReservationService reservationService;
+    private final RoomAvailabilityService roomAvailabilityService;
+    private final IdempotencyService idempotencyService;
+    private final ReservationReadModel reservationReadModel;
+
+
+    @PostMapping("/confirm-reservation")
+    public Mono<ResponseEntity<ReservationResponse>> confirmReservation(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid ReservationRequest reservationRequest) {
+        Mono<ReservationResponse> reservationResponse = idempotencyKey == null || idempotencyKey.isBlank()
+                ? reactiveReservationService.confirmReservation(reservationRequest)
+                : blocking(() -> idempotencyService.execute(idempotencyKey, reservationRequest,
+                        () -> reactiveReservationService.confirmReservation(reservationRequest).block()));
+        return reservationResponse.map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping("/confirm-reservations")
+    public Mono<ResponseEntity<BulkReservationResponse>> confirmReservations(@RequestBody @Valid BulkReservationRequest bulkReservationRequest) {
+        return blocking(() -> reservationService.confirmReservations(bulkReservationRequest.reservations()))
+                .map(response -> ResponseEntity.status(response.confirmed().isEmpty() ? HttpStatus.OK : HttpStatus.CREATED)
+                        .body(response));
+    }
+
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<RoomAvailabilityResponse>> findAvailableRooms(
+            @RequestParam(defaultValue = ReservationRequest.DEFAULT_PROPERTY) String propertyId,
+            @RequestParam RoomSegment roomSegment,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return blocking(() -> roomAvailabilityService.findAvailableRooms(propertyId, roomSegment, startDate, endDate))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{reservationId}")
+    public Mono<ResponseEntity<ReservationDetails>> findReservation(@PathVariable long reservationId) {
+        return blocking(() -> reservationReadModel.findById(reservationId)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "customerName")
+    public Mono<ResponseEntity<List<ReservationDetails>>> findReservationsByCustomer(
+            @RequestParam(defaultValue = ReservationRequest.DEFAULT_PROPERTY) String propertyId,
+            @RequestParam String customerName) {
+        return blocking(() -> reservationReadModel.findByCustomer(propertyId, customerName)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "roomNumber")
+    public Mono<ResponseEntity<List<ReservationDetails>>> findReservationsByRoom(
+            @RequestParam(defaultValue = ReservationRequest.DEFAULT_PROPERTY) String propertyId,
+            @RequestParam int roomNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return blocking(() -> reservationReadModel.findByRoom(propertyId, roomNumber, startDate, endDate)).map(ResponseEntity::ok);
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+}
@@ -1,29 +1,99 @@
 package com.roomreservationservice.controller;
 
+import com.roomreservationservice.dto.BulkReservationRequest;
+import com.roomreservationservice.dto.BulkReservationResponse;
 import com.roomreservationservice.dto.ReservationRequest;
 import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.dto.RoomAvailabilityResponse;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.repository.projection.ReservationDetails;
 import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.availability.RoomAvailabilityService;
+import com.roomreservationservice.service.idempotency.IdempotencyService;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/reservations")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final RoomAvailabilityService roomAvailabilityService;
+    private final IdempotencyService idempotencyService;
+    private final ReservationReadModel reservationReadModel;
 
 
     @PostMapping("/confirm-reservation")
-    public ResponseEntity<ReservationResponse> addBeer(@RequestBody @Valid ReservationRequest reservationRequest) {
-        ReservationResponse reservationResponse = reservationService.confirmReservation(reservationRequest);
+    public ResponseEntity<ReservationResponse> addBeer(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid ReservationRequest reservationRequest) {
+        ReservationResponse reservationResponse = idempotencyKey == null || idempotencyKey.isBlank()
+                ? reservationService.confirmReservation(reservationRequest)
+                : idempotencyService.execute(idempotencyKey, reservationRequest,
+                        () -> reservationService.confirmReservation(reservationRequest));
         return ResponseEntity.status(HttpStatus.CREATED).body(reservationResponse);
     }
 
+    /**
+     * 201 when at least one reservation was created, otherwise 200 with every request rejected.
+     */
+    @PostMapping("/confirm-reservations")
+    public ResponseEntity<BulkReservationResponse> confirmReservations(@RequestBody @Valid BulkReservationRequest bulkReservationRequest) {
+        BulkReservationResponse bulkReservationResponse = reservationService.confirmReservations(bulkReservationRequest.reservations());
+        HttpStatus status = bulkReservationResponse.confirmed().isEmpty() ? HttpStatus.OK : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(bulkReservationResponse);
+    }
+
+    /**
+     * Free rooms of a segment for the period, checked against the database when asked. A room listed
+     * here may still be booked by another guest first, in which case booking it answers 409.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<RoomAvailabilityResponse> findAvailableRooms(
+            @RequestParam(defaultValue = ReservationRequest.DEFAULT_PROPERTY) String propertyId,
+            @RequestParam RoomSegment roomSegment,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(roomAvailabilityService.findAvailableRooms(propertyId, roomSegment, startDate, endDate));
+    }
+
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<ReservationDetails> findReservation(@PathVariable long reservationId) {
+        return ResponseEntity.ok(reservationReadModel.findById(reservationId));
+    }
+
+    @GetMapping(params = "customerName")
+    public ResponseEntity<List<ReservationDetails>> findReservationsByCustomer(
+            @RequestParam(defaultValue = ReservationRequest.DEFAULT_PROPERTY) String propertyId,
+            @RequestParam String customerName) {
+        return ResponseEntity.ok(reservationReadModel.findByCustomer(propertyId, customerName));
+    }
+
+    @GetMapping(params = "roomNumber")
+    public ResponseEntity<List<ReservationDetails>> findReservationsByRoom(
+            @RequestParam(defaultValue = ReservationRequest.DEFAULT_PROPERTY) String propertyId,
+            @RequestParam int roomNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(reservationReadModel.findByRoom(propertyId, roomNumber, startDate, endDate));
+    }
+
 }
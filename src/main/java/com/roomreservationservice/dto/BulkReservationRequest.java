@@ -0,0 +1,14 @@
+package com.roomreservationservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkReservationRequest(
+        @NotEmpty(message = "At least one reservation is required")
+        @Size(max = 500, message = "A bulk request cannot contain more than 500 reservations")
+        List<@Valid ReservationRequest> reservations
+) {
+}
@@ -0,0 +1,28 @@
+package com.roomreservationservice.dto;
+
+import com.roomreservationservice.enums.ReservationStatus;
+
+import java.util.List;
+
+public record BulkReservationResponse(
+        List<Confirmation> confirmed,
+        List<Rejection> rejected
+) {
+
+    /**
+     * {@code requestIndex} is the position of the originating request in the bulk request.
+     */
+    public record Confirmation(
+            int requestIndex,
+            long reservationId,
+            ReservationStatus reservationStatus,
+            int roomNumber
+    ) {
+    }
+
+    public record Rejection(
+            int requestIndex,
+            String reason
+    ) {
+    }
+}
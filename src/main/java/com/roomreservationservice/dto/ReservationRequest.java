@@ -7,8 +7,11 @@ import jakarta.validation.constraints.*;
 import java.time.LocalDate;
 
 public record ReservationRequest(
-        @Min(1)
-        int roomNumber,
+        @Size(max = 64, message = "Property id cannot be longer than 64 characters")
+        String propertyId, // hotel of the group; omitted for single-property deployments
+
+        @PositiveOrZero(message = "Room number must be positive, or 0 to book any free room of the segment")
+        int roomNumber, // 0 (or omitted) books the first free room of the segment
 
         @NotBlank(message = "Customer name cannot be blank")
         String customerName,
@@ -34,5 +37,16 @@ public record ReservationRequest(
         long totalAmount
 
         ) {
+
+    public static final int ANY_ROOM = 0;
+    public static final String DEFAULT_PROPERTY = "default";
+
+    public ReservationRequest {
+        if (propertyId == null || propertyId.isBlank()) propertyId = DEFAULT_PROPERTY;
+    }
+
+    public boolean anyRoom() {
+        return roomNumber == ANY_ROOM;
+    }
 }
 
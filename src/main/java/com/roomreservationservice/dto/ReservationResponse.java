@@ -8,5 +8,7 @@ public record ReservationResponse(
         long reservationId,
 
         @NotNull
-        ReservationStatus reservationStatus) { }
+        ReservationStatus reservationStatus,
+
+        int roomNumber) { }
 
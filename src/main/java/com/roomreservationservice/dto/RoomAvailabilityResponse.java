@@ -0,0 +1,15 @@
+package com.roomreservationservice.dto;
+
+import com.roomreservationservice.enums.RoomSegment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record RoomAvailabilityResponse(
+        String propertyId,
+        RoomSegment roomSegment,
+        LocalDate startDate,
+        LocalDate endDate,
+        List<Integer> availableRooms
+) {
+}
@@ -8,6 +8,8 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +28,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    // WebFlux counterpart of MethodArgumentNotValidException for the reactive profile.
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiException> handleWebExchangeBindException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors()
+                .forEach(e -> errors.put(e.getField(), e.getDefaultMessage()));
+
+        ApiException error = new ApiException(HttpStatus.BAD_REQUEST, errors);
+        return ResponseEntity.badRequest().body(error);
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiException> handleNotFoundException(NotFoundException ex) {
         ApiException error = new ApiException(HttpStatus.NOT_FOUND, ex.getMessage());
@@ -47,9 +60,16 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(RoomAlreadyBookedException.class)
-    public ResponseEntity<ApiException> handleRoomAlreadyBookedException(IllegalArgumentException ex) {
-        ApiException error = new ApiException(HttpStatus.BAD_REQUEST, "This room was already booked on this date.");
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    public ResponseEntity<ApiException> handleRoomAlreadyBookedException(RoomAlreadyBookedException ex) {
+        ApiException error = new ApiException(HttpStatus.CONFLICT, "This room was already booked on this date.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(PaymentProviderException.class)
+    public ResponseEntity<ApiException> handlePaymentProviderException(PaymentProviderException ex) {
+        log.warn("Credit card payment provider unavailable: {}", ex.getMessage());
+        ApiException error = new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Payment provider is temporarily unavailable.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -65,6 +85,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiException> handleServerWebInputException(ServerWebInputException ex) {
+        ApiException error = new ApiException(HttpStatus.BAD_REQUEST, "Invalid request body format.");
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiException> handleGlobalException(Exception ex) {
         log.error("Unhandled exception occurred", ex);
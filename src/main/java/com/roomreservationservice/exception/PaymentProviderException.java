@@ -0,0 +1,17 @@
+package com.roomreservationservice.exception;
+
+/**
+ * The credit card payment provider could not give an answer: it failed, timed out, was unreachable,
+ * or the client refused the call to protect itself. Unlike a rejected payment this says nothing
+ * about the card, so the request may be retried later.
+ */
+public class PaymentProviderException extends IllegalStateException {
+
+    public PaymentProviderException(String message) {
+        super(message);
+    }
+
+    public PaymentProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,31 +1,139 @@
 package com.roomreservationservice.infrastructure.client;
 
 
+import com.roomreservationservice.config.PaymentClientProperties;
 import com.roomreservationservice.dto.ErrorResponse;
 import com.roomreservationservice.dto.PaymentStatusResponse;
 import com.roomreservationservice.dto.PaymentStatusRetrievalRequest;
 import com.roomreservationservice.enums.PaymentStatus;
+import com.roomreservationservice.exception.PaymentProviderException;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client of the credit card payment provider. Every call goes through, from the outside in:
+ * a concurrency bulkhead, a circuit breaker, retries with exponential backoff and an optional hedged
+ * second attempt, and a per-attempt timeout. Provider failures surface as {@link PaymentProviderException};
+ * business answers (rejected, invalid input, unknown payment) never trip the breaker.
+ */
 @Component
 public class CreditCardPaymentClient {
 
+    private static final String NAME = "credit-card-payment";
+
     private final WebClient webClient;
-    private static final String PAYMENT_SERVICE_URL = "http://localhost:9090/host/credit-card-payment-api/payment-status";
+    private final ReservationMetrics metrics;
+    private final String paymentServiceUrl;
+    private final Duration callTimeout;
+    private final PaymentClientProperties.Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
 
 
-    public CreditCardPaymentClient(WebClient webClient) {
+    public CreditCardPaymentClient(WebClient webClient, ReservationMetrics metrics, PaymentClientProperties properties) {
         this.webClient = webClient;
+        this.metrics = metrics;
+        this.paymentServiceUrl = properties.url();
+        this.callTimeout = Duration.ofMillis(properties.callTimeoutMillis());
+        this.retry = properties.retry();
+
+        PaymentClientProperties.CircuitBreaker breaker = properties.circuitBreaker();
+        this.circuitBreaker = CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                .failureRateThreshold(breaker.failureRateThreshold())
+                .slowCallRateThreshold(breaker.slowCallRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(breaker.slowCallDurationMillis()))
+                .slidingWindowSize(breaker.slidingWindowSize())
+                .minimumNumberOfCalls(breaker.minimumNumberOfCalls())
+                .waitDurationInOpenState(Duration.ofMillis(breaker.waitInOpenStateMillis()))
+                .recordExceptions(PaymentProviderException.class)
+                .build());
+
+        this.bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.bulkhead().maxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(properties.bulkhead().maxWaitMillis()))
+                .build());
     }
 
+    /**
+     * Blocking variant for callers that run outside the database transaction. Every attempt is
+     * bounded by the call timeout, so this call never waits unbounded.
+     */
     public boolean validatePayment(String paymentReference) {
+        Boolean confirmed = validatePaymentAsync(paymentReference).block();
+        if (confirmed == null) {
+            throw new IllegalStateException("No response from credit card payment service");
+        }
+        return confirmed;
+    }
+
+    public Mono<Boolean> validatePaymentAsync(String paymentReference) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = metrics.startTimer();
+            return resilient(paymentReference)
+                    .doOnSuccess(confirmed -> metrics.recordPaymentValidation(sample, confirmed, null))
+                    .doOnError(ex -> metrics.recordPaymentValidation(sample, null, ex));
+        });
+    }
+
+    public CircuitBreaker.State circuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    private Mono<Boolean> resilient(String paymentReference) {
+        Mono<Boolean> attempt = requestPaymentStatus(paymentReference)
+                .timeout(callTimeout)
+                .onErrorMap(TimeoutException.class, ex -> new PaymentProviderException(
+                        "Credit card service timed out after " + callTimeout.toMillis() + " ms", ex
+                ));
+
+        // The first answer wins, so a failing attempt does not cut short the one still running; when
+        // both fail, the first attempt's error is reported.
+        Mono<Boolean> hedged = retry.hedgeDelayMillis() > 0
+                ? Mono.firstWithValue(attempt, attempt.delaySubscription(Duration.ofMillis(retry.hedgeDelayMillis())))
+                        .onErrorMap(NoSuchElementException.class, ex -> Exceptions.unwrapMultiple(ex.getCause()).stream()
+                                .findFirst()
+                                .orElse(ex))
+                : attempt;
+
+        return hedged
+                .retryWhen(Retry.backoff(retry.maxRetries(), Duration.ofMillis(retry.backoffMillis()))
+                        .filter(PaymentProviderException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(CallNotPermittedException.class, ex -> new PaymentProviderException(
+                        "Credit card service circuit breaker is open", ex
+                ))
+                .onErrorMap(BulkheadFullException.class, ex -> new PaymentProviderException(
+                        "Too many concurrent credit card validations", ex
+                ));
+    }
+
+    private Mono<Boolean> requestPaymentStatus(String paymentReference) {
         PaymentStatusRetrievalRequest request = new PaymentStatusRetrievalRequest(paymentReference);
 
-        PaymentStatusResponse response = webClient.post()
-                .uri(PAYMENT_SERVICE_URL)
+        return webClient.post()
+                .uri(paymentServiceUrl)
                 .bodyValue(request)
                 .retrieve()
                 .onStatus(
@@ -45,19 +153,19 @@ public class CreditCardPaymentClient {
                 .onStatus(
                         HttpStatusCode::is5xxServerError,
                         clientResponse -> clientResponse.bodyToMono(ErrorResponse.class)
-                                .map(error -> new IllegalStateException(
+                                .<Throwable>map(error -> new PaymentProviderException(
                                         "Credit card service failure: " + error.error()
                                 ))
+                                .onErrorResume(ex -> Mono.empty())
+                                .defaultIfEmpty(new PaymentProviderException(
+                                        "Credit card service failure: " + clientResponse.statusCode()
+                                ))
                 )
                 .bodyToMono(PaymentStatusResponse.class)
-                .toFuture()
-                .join();
-
-        if (response == null) {
-            throw new IllegalStateException("No response from credit card payment service");
-        }
-
-        return response.status() == PaymentStatus.CONFIRMED;
+                .map(response -> response.status() == PaymentStatus.CONFIRMED)
+                .onErrorMap(WebClientRequestException.class, ex -> new PaymentProviderException(
+                        "Credit card service unreachable: " + ex.getMessage(), ex
+                ));
     }
 
-}
\ No newline at end of file
+}
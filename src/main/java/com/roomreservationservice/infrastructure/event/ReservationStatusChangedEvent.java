@@ -0,0 +1,22 @@
+package com.roomreservationservice.infrastructure.event;
+
+import com.roomreservationservice.enums.ReservationStatus;
+
+import java.time.Instant;
+
+/**
+ * Published for every reservation status transition. {@code previousStatus} is {@code null}
+ * when the reservation was just created.
+ * <p>
+ * {@code version} is the reservation's version after the transition and grows with every change of
+ * the reservation. Events may arrive out of order and more than once, so consumers apply the events
+ * of a reservation by version and drop any whose version is not above the last one they applied.
+ */
+public record ReservationStatusChangedEvent(
+        long reservationId,
+        long version,
+        ReservationStatus previousStatus,
+        ReservationStatus status,
+        Instant occurredAt
+) {
+}
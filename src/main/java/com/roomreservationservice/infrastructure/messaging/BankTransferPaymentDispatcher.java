@@ -0,0 +1,156 @@
+package com.roomreservationservice.infrastructure.messaging;
+
+import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.banktransfer.PaymentReferenceParser;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Applies a poll of bank transfer events on ordered worker queues sharded by reservation id. Events
+ * for one reservation always land on the same single-threaded shard, in poll order, so they never
+ * race each other inside this instance, while different reservations are applied in parallel.
+ * <p>
+ * Events for the same reservation can still arrive on another consumer when the bank's producer
+ * does not key by reservation, so a shard retries on optimistic-lock failures with backoff. If its
+ * batch keeps failing, the shard falls back to applying the events one by one, and an event that
+ * still fails is published to the dead-letter topic instead of being lost. {@link #dispatch(List)}
+ * returns only when every shard is done, so offsets are committed after the whole poll is handled.
+ * <p>
+ * Only poison events are dead-lettered. A failure that says nothing about the event, such as an
+ * unreachable database or a conflict that outlived the retries, is rethrown from {@link #dispatch(List)}
+ * so the container redelivers the poll; applying an event twice is harmless because payments only
+ * confirm reservations that are still pending.
+ */
+@Slf4j
+@Component
+@Profile("kafka")
+public class BankTransferPaymentDispatcher {
+
+    private final ReservationService reservationService;
+    private final KafkaTemplate<@NonNull String, @NonNull String> kafkaTemplate;
+    private final JsonMapper jsonMapper;
+    private final ReservationMetrics metrics;
+    private final ExecutorService[] shards;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final String deadLetterTopic;
+
+    public BankTransferPaymentDispatcher(ReservationService reservationService,
+                                         KafkaTemplate<@NonNull String, @NonNull String> kafkaTemplate,
+                                         JsonMapper jsonMapper,
+                                         ReservationMetrics metrics,
+                                         @Value("${bank-transfer.dispatcher.shards:8}") int shardCount,
+                                         @Value("${bank-transfer.dispatcher.max-attempts:3}") int maxAttempts,
+                                         @Value("${bank-transfer.dispatcher.backoff-millis:50}") long backoffMillis,
+                                         @Value("${bank-transfer.dispatcher.dead-letter-topic:bank-transfer-payment-update.DLT}") String deadLetterTopic) {
+        this.reservationService = reservationService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.jsonMapper = jsonMapper;
+        this.metrics = metrics;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.deadLetterTopic = deadLetterTopic;
+        this.shards = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("bank-transfer-shard-" + i).factory());
+        }
+    }
+
+    public void dispatch(List<BankTransferPaymentEvent> events) {
+        List<List<BankTransferPaymentEvent>> eventsByShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) eventsByShard.add(new ArrayList<>());
+        for (BankTransferPaymentEvent event : events) {
+            long reservationId = PaymentReferenceParser.parseReservationId(event.transactionDescription());
+            eventsByShard.get(Math.floorMod(Long.hashCode(reservationId), shards.length)).add(event);
+        }
+
+        List<CompletableFuture<Void>> shardRuns = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            List<BankTransferPaymentEvent> shardEvents = eventsByShard.get(i);
+            if (!shardEvents.isEmpty()) {
+                shardRuns.add(CompletableFuture.runAsync(() -> applyShard(shardEvents), shards[i]));
+            }
+        }
+        try {
+            CompletableFuture.allOf(shardRuns.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService shard : shards) shard.close();
+    }
+
+    private void applyShard(List<BankTransferPaymentEvent> shardEvents) {
+        try {
+            withRetry(() -> reservationService.handleBankTransferPayments(shardEvents));
+        } catch (RuntimeException ex) {
+            if (isTransient(ex)) throw ex;
+            log.warn("Batch of {} bank transfer events failed, applying them one by one", shardEvents.size(), ex);
+            shardEvents.forEach(this::applyEvent);
+        }
+    }
+
+    private void applyEvent(BankTransferPaymentEvent event) {
+        try {
+            withRetry(() -> reservationService.handleBankTransferPayment(event));
+        } catch (RuntimeException ex) {
+            if (isTransient(ex)) throw ex;
+            log.error("Bank transfer event {} failed, sending it to {}", event.paymentId(), deadLetterTopic, ex);
+            long reservationId = PaymentReferenceParser.parseReservationId(event.transactionDescription());
+            kafkaTemplate.send(deadLetterTopic, String.valueOf(reservationId), jsonMapper.writeValueAsString(event)).join();
+            metrics.recordBankTransferDeadLetter();
+        }
+    }
+
+    private <T> T withRetry(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) throw ex;
+                metrics.recordBankTransferRetry();
+                sleep(backoffMillis * attempt);
+            }
+        }
+    }
+
+    // Failures that would go away on redelivery, as opposed to events that can never be applied.
+    private static boolean isTransient(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof CannotCreateTransactionException;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off a bank transfer retry", ex);
+        }
+    }
+}
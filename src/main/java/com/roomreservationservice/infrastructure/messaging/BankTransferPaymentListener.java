@@ -1,22 +1,23 @@
 package com.roomreservationservice.infrastructure.messaging;
 
 import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
-import com.roomreservationservice.service.ReservationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 
 @Component
 @Profile("kafka")
 @RequiredArgsConstructor
 public class BankTransferPaymentListener {
 
-    private final ReservationService reservationService;
+    private final BankTransferPaymentDispatcher bankTransferPaymentDispatcher;
 
-    @KafkaListener(topics = "bank-transfer-payment-update")
-    public void onMessage(BankTransferPaymentEvent event) {
-        reservationService.handleBankTransferPayment(event);
+    @KafkaListener(topics = "bank-transfer-payment-update", containerFactory = "batchKafkaListenerContainerFactory")
+    public void onMessages(List<BankTransferPaymentEvent> events) {
+        bankTransferPaymentDispatcher.dispatch(events);
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.roomreservationservice.infrastructure.messaging;
+
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.model.OutboxEvent;
+import com.roomreservationservice.repository.OutboxEventRepository;
+import com.roomreservationservice.service.lease.SchedulerLeaseService;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes the reservation outbox to Kafka in id order and deletes every batch once the broker has
+ * acknowledged it. Delivery is at-least-once: a crash between the acknowledgement and the delete
+ * republishes that batch. Every shard has its own outbox, relayed one shard after the other.
+ * <p>
+ * Id order is not commit order: outbox ids are drawn when the row is written, and a transaction that
+ * drew a lower id can commit after a batch holding higher ids was already relayed. Two changes of one
+ * reservation can therefore reach the topic in either order, so consumers order them by the
+ * {@code version} the events carry and drop events at or below the version they already applied.
+ * <p>
+ * Only the replica holding the {@value #LEASE_NAME} lease of a shard relays its outbox, so two
+ * replicas never publish the same rows concurrently. The lease is given back after every run, so any
+ * replica can pick the shard up on its next tick.
+ */
+@Slf4j
+@Component
+@Profile("kafka")
+public class OutboxRelay {
+
+    private static final String LEASE_NAME = "reservation-outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<@NonNull String, @NonNull String> kafkaTemplate;
+    private final TransactionOperations transactionOperations;
+    private final ShardRouter shardRouter;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${reservation.outbox.topic:reservation-status-changed}")
+    private String topic;
+
+    @Value("${reservation.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${reservation.outbox.lease.lock-at-most-for-seconds:60}")
+    private long lockAtMostForSeconds;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<@NonNull String, @NonNull String> kafkaTemplate,
+                       TransactionOperations transactionOperations, ShardRouter shardRouter,
+                       SchedulerLeaseService schedulerLeaseService) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionOperations = transactionOperations;
+        this.shardRouter = shardRouter;
+        this.schedulerLeaseService = schedulerLeaseService;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.outbox.relay-interval-millis:1000}")
+    public void relay() {
+        shardRouter.forEachShard(this::relayShard);
+    }
+
+    private void relayShard(String shard) {
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(lockAtMostForSeconds))) return;
+        try {
+            relayBatches(shard);
+        } finally {
+            schedulerLeaseService.release(LEASE_NAME, Duration.ZERO);
+        }
+    }
+
+    private void relayBatches(String shard) {
+        int published = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+            if (batch.isEmpty()) break;
+
+            // Reservation id as key keeps every reservation's events on one partition.
+            CompletableFuture<?>[] sends = batch.stream()
+                    .map(event -> kafkaTemplate.send(topic, String.valueOf(event.getReservationId()), event.getPayload()))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(sends).join();
+
+            List<OutboxEvent> sent = batch;
+            transactionOperations.executeWithoutResult(status -> outboxEventRepository.deleteAllInBatch(sent));
+            published += batch.size();
+        } while (batch.size() == batchSize);
+
+        if (published > 0) log.info("Relayed {} reservation outbox events of shard {} to {}", published, shard, topic);
+    }
+}
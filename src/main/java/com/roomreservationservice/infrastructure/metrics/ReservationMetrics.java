@@ -0,0 +1,107 @@
+package com.roomreservationservice.infrastructure.metrics;
+
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.enums.RoomSegment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single place where the reservation pipeline records its meters, so names and tags stay consistent.
+ * Failures are tagged with {@code outcome=FAILED} and the simple name of the exception, following
+ * the {@code http.server.requests} convention.
+ */
+@Component
+public class ReservationMetrics {
+
+    private static final String NONE = "none";
+    private static final String FAILED = "FAILED";
+
+    private final MeterRegistry registry;
+
+    public ReservationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void recordConfirmation(Timer.Sample sample, PaymentMode paymentMode, RoomSegment roomSegment,
+                                   ReservationStatus status, Throwable failure) {
+        sample.stop(Timer.builder("reservation.confirm")
+                .description("Time to confirm a single reservation, payment included")
+                .tag("payment.mode", String.valueOf(paymentMode))
+                .tag("room.segment", String.valueOf(roomSegment))
+                .tag("outcome", failure == null ? status.name() : FAILED)
+                .tag("exception", exceptionTag(failure))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    public void recordAvailabilityCheck(Timer.Sample sample, boolean available) {
+        sample.stop(Timer.builder("reservation.availability.check")
+                .description("Time to check and hold a room in the availability index")
+                .tag("outcome", available ? "AVAILABLE" : "OCCUPIED")
+                .register(registry));
+    }
+
+    public void recordPaymentValidation(Timer.Sample sample, Boolean confirmed, Throwable failure) {
+        String outcome = failure != null ? FAILED : Boolean.TRUE.equals(confirmed) ? "CONFIRMED" : "REJECTED";
+        sample.stop(Timer.builder("payment.credit.card.validation")
+                .description("Round trip to the credit card payment provider")
+                .tag("outcome", outcome)
+                .tag("exception", exceptionTag(failure))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    public void recordBankTransferEvents(Timer.Sample sample, int events, int confirmed) {
+        sample.stop(Timer.builder("bank.transfer.events")
+                .description("Time to apply one batch of bank transfer payment events")
+                .publishPercentileHistogram()
+                .register(registry));
+        counter("bank.transfer.events.received").increment(events);
+        counter("bank.transfer.events.confirmed").increment(confirmed);
+    }
+
+    public void recordBankTransferRetry() {
+        counter("bank.transfer.events.retried").increment();
+    }
+
+    public void recordBankTransferDeadLetter() {
+        counter("bank.transfer.events.dead.lettered").increment();
+    }
+
+    public void recordExpiration(Timer.Sample sample, int cancelled) {
+        sample.stop(Timer.builder("reservation.expiration")
+                .description("Duration of one pending bank transfer expiration run")
+                .register(registry));
+        counter("reservation.expiration.cancelled").increment(cancelled);
+    }
+
+    public void recordHoldExpiration(Timer.Sample sample, int cancelled) {
+        sample.stop(Timer.builder("reservation.hold.expiration")
+                .description("Time to cancel one chunk of reservations whose hold deadline passed")
+                .register(registry));
+        counter("reservation.hold.expiration.cancelled").increment(cancelled);
+    }
+
+    public void recordCreditCardCompletions(Timer.Sample sample, int confirmed, int cancelled) {
+        sample.stop(Timer.builder("credit.card.async.completion")
+                .description("Time to apply one batch of asynchronous credit card validations")
+                .register(registry));
+        counter("credit.card.async.confirmed").increment(confirmed);
+        counter("credit.card.async.cancelled").increment(cancelled);
+    }
+
+    private Counter counter(String name) {
+        return Counter.builder(name).register(registry);
+    }
+
+    private static String exceptionTag(Throwable failure) {
+        return failure == null ? NONE : failure.getClass().getSimpleName();
+    }
+}
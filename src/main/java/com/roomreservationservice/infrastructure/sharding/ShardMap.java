@@ -0,0 +1,74 @@
+package com.roomreservationservice.infrastructure.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring from property ids to database shards. Every shard is placed on the ring at
+ * {@code virtualNodes} points and a property belongs to the shard of the first point at or after its
+ * own hash, so adding a shard only moves the properties that fall on its points, roughly one in
+ * {@code n}, instead of reshuffling nearly all of them as {@code hash % n} would.
+ * <p>
+ * Reservations do not follow a property that moves, so properties that already have data on a shard
+ * are pinned to it before a shard is added. Pinned properties bypass the ring.
+ */
+public final class ShardMap {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> shards;
+    private final Map<String, String> pinned;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ShardMap(Collection<String> shards, int virtualNodes, Map<String, String> pinned) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+        if (virtualNodes < 1) throw new IllegalArgumentException("virtualNodes must be positive");
+        pinned.forEach((propertyId, shard) -> {
+            if (!shards.contains(shard)) {
+                throw new IllegalArgumentException("Property " + propertyId + " is pinned to unknown shard " + shard);
+            }
+        });
+        // Sorted, so every replica builds the same ring whatever order the shards were configured in.
+        this.shards = shards.stream().sorted().toList();
+        this.pinned = Map.copyOf(pinned);
+        for (String shard : this.shards) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.putIfAbsent(hash(shard + "#" + node), shard);
+            }
+        }
+    }
+
+    public static ShardMap single(String shard) {
+        return new ShardMap(List.of(shard), 1, Map.of());
+    }
+
+    public String shardOf(String propertyId) {
+        String pinnedShard = pinned.get(propertyId);
+        if (pinnedShard != null) return pinnedShard;
+        if (shards.size() == 1) return shards.getFirst();
+
+        Map.Entry<Long, String> point = ring.ceilingEntry(hash(propertyId));
+        return (point != null ? point : ring.firstEntry()).getValue();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    // FNV-1a spread with the SplitMix64 finalizer: stable across JVMs, unlike String.hashCode, and
+    // well mixed for the short, similar keys of virtual nodes.
+    static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,124 @@
+package com.roomreservationservice.infrastructure.sharding;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Binds the current thread to the database shard of a property, so that {@link ShardRoutingDataSource}
+ * hands out connections of that shard. Work for a property runs inside {@link #onProperty}; jobs that
+ * cover every property, such as expiry sweeps and the outbox relay, run once per shard through
+ * {@link #forEachShard} and so only ever touch rows of the shard they run on.
+ * <p>
+ * Code running without a bound shard uses the default shard. A deployment without shards has exactly
+ * one, so the routing calls cost nothing there.
+ * <p>
+ * Every shard hands out ids from its own block of {@value #ID_BLOCK_SIZE} ids, so the shard holding a
+ * reservation normally follows from its id through {@link #shardOfId}. Rows written before that held,
+ * such as those of a database that joined as a later block, may live elsewhere, which is why lookups
+ * by id go through {@link #shardsForId}.
+ */
+public class ShardRouter {
+
+    public static final int ID_BLOCK_BITS = 40;
+    public static final long ID_BLOCK_SIZE = 1L << ID_BLOCK_BITS;
+
+    private static final ThreadLocal<String> BOUND_SHARD = new ThreadLocal<>();
+
+    private final ShardMap shardMap;
+    private final String defaultShard;
+    private final Map<Long, String> shardsByIdBlock;
+
+    public ShardRouter(ShardMap shardMap, String defaultShard, Map<Long, String> shardsByIdBlock) {
+        if (!shardMap.shards().contains(defaultShard)) {
+            throw new IllegalArgumentException("Default shard " + defaultShard + " is not one of " + shardMap.shards());
+        }
+        if (!shardMap.shards().containsAll(shardsByIdBlock.values())) {
+            throw new IllegalArgumentException("Id blocks " + shardsByIdBlock + " name shards outside " + shardMap.shards());
+        }
+        this.shardMap = shardMap;
+        this.defaultShard = defaultShard;
+        this.shardsByIdBlock = Map.copyOf(shardsByIdBlock);
+    }
+
+    public static ShardRouter unsharded(String shard) {
+        return new ShardRouter(ShardMap.single(shard), shard, Map.of(0L, shard));
+    }
+
+    /**
+     * Shard the current thread is bound to, or {@code null} outside {@link #onShard}.
+     */
+    public static String boundShard() {
+        return BOUND_SHARD.get();
+    }
+
+    public String currentShard() {
+        String shard = BOUND_SHARD.get();
+        return shard != null ? shard : defaultShard;
+    }
+
+    public String shardOf(String propertyId) {
+        return shardMap.shardOf(propertyId);
+    }
+
+    /**
+     * Shard whose id block {@code id} falls in, or the default shard for ids outside every block.
+     */
+    public String shardOfId(long id) {
+        return shardsByIdBlock.getOrDefault(id >>> ID_BLOCK_BITS, defaultShard);
+    }
+
+    /**
+     * Shards to look for {@code id} on, in order: the shard of its id block first, then the others.
+     */
+    public List<String> shardsForId(long id) {
+        String owner = shardOfId(id);
+        List<String> shards = new ArrayList<>(shardMap.shards().size());
+        shards.add(owner);
+        for (String shard : shardMap.shards()) {
+            if (!shard.equals(owner)) shards.add(shard);
+        }
+        return shards;
+    }
+
+    public List<String> shards() {
+        return shardMap.shards();
+    }
+
+    public <T> T onProperty(String propertyId, Supplier<T> work) {
+        return onShard(shardOf(propertyId), work);
+    }
+
+    /**
+     * Runs {@code work} with the current thread bound to {@code shard}. A transaction keeps the
+     * connection it started with, so switching to another shard inside one is refused.
+     */
+    public <T> T onShard(String shard, Supplier<T> work) {
+        String previous = BOUND_SHARD.get();
+        if (shard.equals(previous)) return work.get();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !shard.equals(currentShard())) {
+            throw new IllegalStateException("Cannot switch to shard " + shard + " inside a transaction on " + currentShard());
+        }
+
+        BOUND_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) BOUND_SHARD.remove();
+            else BOUND_SHARD.set(previous);
+        }
+    }
+
+    public void forEachShard(Consumer<String> work) {
+        for (String shard : shardMap.shards()) {
+            onShard(shard, () -> {
+                work.accept(shard);
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.roomreservationservice.infrastructure.sharding;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Hands out connections of the shard the current thread is bound to by {@link ShardRouter}, or of the
+ * default shard when none is bound. Closing it closes the pools of all shards, also when a pool sits
+ * behind a wrapper such as the connection permits of virtual-thread mode.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouter.boundShard();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            DataSource pool = dataSource instanceof DelegatingDataSource delegating
+                    ? delegating.getTargetDataSource()
+                    : dataSource;
+            if (pool instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+}
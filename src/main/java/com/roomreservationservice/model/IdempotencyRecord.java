@@ -0,0 +1,35 @@
+package com.roomreservationservice.model;
+
+import com.roomreservationservice.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+
+@Entity
+@Table(name = "idempotency_records")
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    String idempotencyKey;
+
+    @Column(nullable = false)
+    String requestFingerprint;
+
+    // Null while the request holding the key is still running.
+    Long reservationId;
+
+    int roomNumber;
+
+    @Enumerated(EnumType.STRING)
+    ReservationStatus reservationStatus;
+
+    @Column(nullable = false)
+    Instant createdAt;
+
+}
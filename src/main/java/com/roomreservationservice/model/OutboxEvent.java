@@ -0,0 +1,34 @@
+package com.roomreservationservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+
+@Entity
+@Table(name = "reservation_outbox")
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_outbox_id_generator")
+    @SequenceGenerator(name = "reservation_outbox_id_generator", sequenceName = "reservation_outbox_seq", allocationSize = 1)
+    long id;
+
+    @Column(nullable = false)
+    long reservationId;
+
+    @Column(nullable = false)
+    String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    String payload;
+
+    @Column(nullable = false)
+    Instant createdAt;
+
+}
@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 
@@ -18,8 +19,13 @@ import java.time.LocalDate;
 @RequiredArgsConstructor
 public class Reservation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_id_generator")
+    @SequenceGenerator(name = "reservation_id_generator", sequenceName = "reservations_seq", allocationSize = 1)
     long id;
+
+    @Column(nullable = false, length = 64)
+    String propertyId;
+
     int roomNumber;
 
     @Column(nullable = false)
@@ -48,6 +54,8 @@ public class Reservation {
 
     long totalAmount;
 
+    Instant holdExpiresAt;
+
     @Version
     private Long version;
 
@@ -0,0 +1,29 @@
+package com.roomreservationservice.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+
+@Entity
+@Table(name = "scheduler_leases")
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class SchedulerLease {
+    @Id
+    String leaseName;
+
+    @Column(nullable = false)
+    Instant lockedUntil;
+
+    @Column(nullable = false)
+    Instant lockedAt;
+
+    @Column(nullable = false)
+    String lockedBy;
+
+}
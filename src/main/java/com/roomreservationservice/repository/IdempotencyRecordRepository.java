@@ -0,0 +1,59 @@
+package com.roomreservationservice.repository;
+
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Claims the key for a request about to run by inserting an in-progress record. A record that has
+     * expired, or that was left in progress by an instance that never finished, is taken over. Returns
+     * 1 when the caller may run the request; the primary key serializes competing instances.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO idempotency_records (idempotency_key, request_fingerprint, room_number, created_at)
+                VALUES (:idempotencyKey, :fingerprint, 0, :now)
+                ON CONFLICT (idempotency_key) DO UPDATE
+                    SET request_fingerprint = EXCLUDED.request_fingerprint,
+                        reservation_id = NULL,
+                        reservation_status = NULL,
+                        room_number = 0,
+                        created_at = EXCLUDED.created_at
+                    WHERE idempotency_records.created_at < :expiredBefore
+                       OR (idempotency_records.reservation_status IS NULL
+                           AND idempotency_records.created_at < :abandonedBefore)
+            """, nativeQuery = true)
+    int tryClaim(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("now") Instant now,
+                 @Param("expiredBefore") Instant expiredBefore,
+                 @Param("abandonedBefore") Instant abandonedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r " +
+            "SET r.reservationId = :reservationId, r.reservationStatus = :reservationStatus, r.roomNumber = :roomNumber " +
+            "WHERE r.idempotencyKey = :idempotencyKey")
+    int complete(@Param("idempotencyKey") String idempotencyKey,
+                 @Param("reservationId") long reservationId,
+                 @Param("reservationStatus") ReservationStatus reservationStatus,
+                 @Param("roomNumber") int roomNumber);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND r.reservationStatus IS NULL")
+    int deleteInProgress(@Param("idempotencyKey") String idempotencyKey);
+}
@@ -0,0 +1,12 @@
+package com.roomreservationservice.repository;
+
+import com.roomreservationservice.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findAllByOrderByIdAsc(Limit limit);
+}
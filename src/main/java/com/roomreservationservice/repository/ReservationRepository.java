@@ -3,45 +3,172 @@ package com.roomreservationservice.repository;
 import com.roomreservationservice.enums.PaymentMode;
 import com.roomreservationservice.enums.ReservationStatus;
 import com.roomreservationservice.model.Reservation;
-import com.roomreservationservice.repository.projection.ReservationSummary;
+import com.roomreservationservice.repository.projection.HoldDeadline;
+import com.roomreservationservice.repository.projection.PendingPayment;
+import com.roomreservationservice.repository.projection.ReservationDetails;
+import com.roomreservationservice.repository.projection.ReservationVersion;
+import com.roomreservationservice.repository.projection.RoomNumberRange;
+import com.roomreservationservice.repository.projection.RoomStay;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    @Query("SELECT r.id " +
+            "FROM Reservation r " +
+            "WHERE r.id > :afterId " +
+            "AND r.roomNumber >= :fromRoomNumber " +
+            "AND r.roomNumber < :toRoomNumber " +
+            "AND r.startDate >= :targetDate " +
+            "AND r.paymentMode = :paymentMode " +
+            "AND r.status = :status " +
+            "ORDER BY r.id")
+    List<Long> findPendingBankTransferIdsAfter(
+            @Param("afterId") long afterId,
+            @Param("fromRoomNumber") int fromRoomNumber,
+            @Param("toRoomNumber") int toRoomNumber,
+            @Param("targetDate") LocalDate targetDate,
+            @Param("paymentMode") PaymentMode paymentMode,
+            @Param("status") ReservationStatus status,
+            Limit limit
+    );
 
-    @Query("SELECT ReservationSummary" +
-            "(r.id, r.endDate, r.status) " +
+    @Query("SELECT PendingPayment(r.id, r.paymentReference) " +
+            "FROM Reservation r " +
+            "WHERE r.id > :afterId " +
+            "AND r.paymentMode = :paymentMode " +
+            "AND r.status = :status " +
+            "ORDER BY r.id")
+    List<PendingPayment> findPendingPaymentsAfter(
+            @Param("afterId") long afterId,
+            @Param("paymentMode") PaymentMode paymentMode,
+            @Param("status") ReservationStatus status,
+            Limit limit
+    );
+
+    @Query("SELECT new com.roomreservationservice.repository.projection.RoomNumberRange" +
+            "(MIN(r.roomNumber), MAX(r.roomNumber)) " +
             "FROM Reservation r " +
             "WHERE r.startDate >= :targetDate " +
             "AND r.paymentMode = :paymentMode " +
             "AND r.status = :status")
-    List<ReservationSummary> findPendingBankTransfers(
+    RoomNumberRange findPendingBankTransferRoomRange(
             @Param("targetDate") LocalDate targetDate,
             @Param("paymentMode") PaymentMode paymentMode,
             @Param("status") ReservationStatus status
     );
 
-
     @Modifying
-    @Query("UPDATE Reservation r SET r.status = :status " +
-            "WHERE r.id IN :ids")
-    int updateStatusByIds(@Param("ids") List<Long> ids, @Param("status") ReservationStatus status);
+    @Query("UPDATE Reservation r SET r.status = :newStatus, r.version = r.version + 1 " +
+            "WHERE r.id IN :ids " +
+            "AND r.status = :currentStatus")
+    int updateStatusByIdsAndStatus(
+            @Param("ids") List<Long> ids,
+            @Param("currentStatus") ReservationStatus currentStatus,
+            @Param("newStatus") ReservationStatus newStatus
+    );
+
+    @Query("SELECT new com.roomreservationservice.repository.projection.ReservationVersion(r.id, r.version) " +
+            "FROM Reservation r WHERE r.id IN :ids AND r.status = :status")
+    List<ReservationVersion> findVersionsByIdInAndStatus(@Param("ids") List<Long> ids,
+                                                         @Param("status") ReservationStatus status);
 
     @Query("""
                 SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END
                 FROM Reservation r
-                WHERE r.roomNumber = :roomNumber
+                WHERE r.propertyId = :propertyId
+                  AND r.roomNumber = :roomNumber
                   AND r.status != 'CANCELLED'
                   AND r.startDate < :endDate
                   AND r.endDate > :startDate
             """)
-    boolean existsByRoomNumberAndDateRange(
+    boolean existsByPropertyIdAndRoomNumberAndDateRange(
+            @Param("propertyId") String propertyId,
+            @Param("roomNumber") int roomNumber,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("""
+                SELECT DISTINCT r.roomNumber
+                FROM Reservation r
+                WHERE r.propertyId = :propertyId
+                  AND r.roomNumber IN :roomNumbers
+                  AND r.status != 'CANCELLED'
+                  AND r.startDate < :endDate
+                  AND r.endDate > :startDate
+            """)
+    List<Integer> findBookedRoomNumbers(
+            @Param("propertyId") String propertyId,
+            @Param("roomNumbers") List<Integer> roomNumbers,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("""
+                SELECT new com.roomreservationservice.repository.projection.RoomStay
+                    (r.id, r.propertyId, r.roomNumber, r.startDate, r.endDate)
+                FROM Reservation r
+                WHERE r.status != 'CANCELLED'
+                  AND r.endDate > :fromDate
+            """)
+    List<RoomStay> findActiveStays(@Param("fromDate") LocalDate fromDate);
+
+    @Query("""
+                SELECT new com.roomreservationservice.repository.projection.HoldDeadline
+                    (r.id, r.holdExpiresAt)
+                FROM Reservation r
+                WHERE r.status = :status
+                  AND r.holdExpiresAt IS NOT NULL
+            """)
+    List<HoldDeadline> findHoldDeadlines(@Param("status") ReservationStatus status);
+
+    @Query("SELECT r.id " +
+            "FROM Reservation r " +
+            "WHERE r.id > :afterId " +
+            "AND r.status = :status " +
+            "AND r.holdExpiresAt <= :now " +
+            "ORDER BY r.id")
+    List<Long> findExpiredHoldIdsAfter(
+            @Param("afterId") long afterId,
+            @Param("status") ReservationStatus status,
+            @Param("now") Instant now,
+            Limit limit
+    );
+
+    @Query("""
+                SELECT new com.roomreservationservice.repository.projection.ReservationDetails
+                    (r.id, r.propertyId, r.roomNumber, r.customerName, r.startDate, r.endDate,
+                     r.roomSegment, r.paymentMode, r.status, r.totalAmount)
+                FROM Reservation r
+                WHERE r.id IN :ids
+            """)
+    List<ReservationDetails> findDetailsByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("SELECT r.id FROM Reservation r " +
+            "WHERE r.propertyId = :propertyId AND r.customerName = :customerName " +
+            "ORDER BY r.startDate, r.id")
+    List<Long> findIdsByPropertyIdAndCustomerName(@Param("propertyId") String propertyId,
+                                                  @Param("customerName") String customerName);
+
+    @Query("""
+                SELECT r.id
+                FROM Reservation r
+                WHERE r.propertyId = :propertyId
+                  AND r.roomNumber = :roomNumber
+                  AND r.startDate < :endDate
+                  AND r.endDate > :startDate
+                ORDER BY r.startDate, r.id
+            """)
+    List<Long> findIdsByPropertyIdAndRoomNumberOverlapping(
+            @Param("propertyId") String propertyId,
             @Param("roomNumber") int roomNumber,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
@@ -0,0 +1,43 @@
+package com.roomreservationservice.repository;
+
+import com.roomreservationservice.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Takes the lease when nobody holds it or the current holder's lease has run out. Returns 1 when
+     * the lease was taken; the row lock makes competing instances serialize on the same row.
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO scheduler_leases (lease_name, locked_until, locked_at, locked_by)
+                VALUES (:leaseName, now() + make_interval(secs => :lockSeconds), now(), :owner)
+                ON CONFLICT (lease_name) DO UPDATE
+                    SET locked_until = EXCLUDED.locked_until,
+                        locked_at = EXCLUDED.locked_at,
+                        locked_by = EXCLUDED.locked_by
+                    WHERE scheduler_leases.locked_until <= now()
+            """, nativeQuery = true)
+    int tryAcquire(@Param("leaseName") String leaseName,
+                   @Param("owner") String owner,
+                   @Param("lockSeconds") long lockSeconds);
+
+    /**
+     * Gives the lease back, but keeps it for at least {@code minLockSeconds} after it was taken so an
+     * instance whose clock fires slightly later does not start the same run again.
+     */
+    @Modifying
+    @Query(value = """
+                UPDATE scheduler_leases
+                SET locked_until = GREATEST(now(), locked_at + make_interval(secs => :minLockSeconds))
+                WHERE lease_name = :leaseName
+                  AND locked_by = :owner
+            """, nativeQuery = true)
+    int release(@Param("leaseName") String leaseName,
+                @Param("owner") String owner,
+                @Param("minLockSeconds") long minLockSeconds);
+}
@@ -0,0 +1,9 @@
+package com.roomreservationservice.repository.projection;
+
+import java.time.Instant;
+
+public record HoldDeadline(
+        Long id,
+        Instant holdExpiresAt
+) {
+}
@@ -0,0 +1,7 @@
+package com.roomreservationservice.repository.projection;
+
+public record PendingPayment(
+        Long id,
+        String paymentReference
+) {
+}
@@ -0,0 +1,21 @@
+package com.roomreservationservice.repository.projection;
+
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.enums.RoomSegment;
+
+import java.time.LocalDate;
+
+public record ReservationDetails(
+        Long id,
+        String propertyId,
+        int roomNumber,
+        String customerName,
+        LocalDate startDate,
+        LocalDate endDate,
+        RoomSegment roomSegment,
+        PaymentMode paymentMode,
+        ReservationStatus reservationStatus,
+        long totalAmount
+) {
+}
@@ -0,0 +1,7 @@
+package com.roomreservationservice.repository.projection;
+
+public record ReservationVersion(
+        Long id,
+        Long version
+) {
+}
@@ -0,0 +1,12 @@
+package com.roomreservationservice.repository.projection;
+
+import java.time.LocalDate;
+
+public record RoomStay(
+        Long id,
+        String propertyId,
+        int roomNumber,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+}
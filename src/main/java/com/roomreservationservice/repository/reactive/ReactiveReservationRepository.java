@@ -0,0 +1,78 @@
+package com.roomreservationservice.repository.reactive;
+
+import com.roomreservationservice.model.OutboxEvent;
+import com.roomreservationservice.model.Reservation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * R2DBC access to the tables mapped by {@link Reservation} and {@link OutboxEvent}, used by the
+ * reactive booking path. Ids come from the same sequences as the JPA entities, which also take one
+ * value per row, so a fetched value never collides with ids handed out by JPA.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveReservationRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReservationRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Inserts the reservation and returns its new id. The entity itself is left untouched.
+     */
+    public Mono<Long> insert(Reservation reservation) {
+        return nextValue("reservations_seq").flatMap(id -> {
+            DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                            INSERT INTO reservations (id, property_id, room_number, customer_name, start_date, end_date,
+                                                      room_segment, payment_mode, status, payment_reference,
+                                                      total_amount, hold_expires_at, version)
+                            VALUES (:id, :propertyId, :roomNumber, :customerName, :startDate, :endDate,
+                                    :roomSegment, :paymentMode, :status, :paymentReference,
+                                    :totalAmount, :holdExpiresAt, 0)""")
+                    .bind("id", id)
+                    .bind("propertyId", reservation.getPropertyId())
+                    .bind("roomNumber", reservation.getRoomNumber())
+                    .bind("customerName", reservation.getCustomerName())
+                    .bind("startDate", reservation.getStartDate())
+                    .bind("endDate", reservation.getEndDate())
+                    .bind("roomSegment", reservation.getRoomSegment().name())
+                    .bind("paymentMode", reservation.getPaymentMode().name())
+                    .bind("status", reservation.getStatus().name())
+                    .bind("totalAmount", reservation.getTotalAmount());
+            spec = reservation.getPaymentReference() != null
+                    ? spec.bind("paymentReference", reservation.getPaymentReference())
+                    : spec.bindNull("paymentReference", String.class);
+            spec = reservation.getHoldExpiresAt() != null
+                    ? spec.bind("holdExpiresAt", reservation.getHoldExpiresAt())
+                    : spec.bindNull("holdExpiresAt", Instant.class);
+            return spec.fetch().rowsUpdated().thenReturn(id);
+        });
+    }
+
+    public Mono<Void> insertOutboxEvent(OutboxEvent outboxEvent) {
+        return nextValue("reservation_outbox_seq").flatMap(id -> databaseClient.sql("""
+                                INSERT INTO reservation_outbox (id, reservation_id, event_type, payload, created_at)
+                                VALUES (:id, :reservationId, :eventType, :payload, :createdAt)""")
+                        .bind("id", id)
+                        .bind("reservationId", outboxEvent.getReservationId())
+                        .bind("eventType", outboxEvent.getEventType())
+                        .bind("payload", outboxEvent.getPayload())
+                        .bind("createdAt", outboxEvent.getCreatedAt())
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+
+    private Mono<Long> nextValue(String sequenceName) {
+        return databaseClient.sql("SELECT nextval('" + sequenceName + "') AS id")
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+}
@@ -0,0 +1,119 @@
+package com.roomreservationservice.service;
+
+import com.roomreservationservice.exception.PaymentProviderException;
+import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.projection.PendingPayment;
+import com.roomreservationservice.service.lease.SchedulerLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background half of the asynchronous credit card mode: picks up reservations stored as
+ * {@code PENDING_PAYMENT}, validates their payment references with the provider and confirms or
+ * cancels them. Pending payments are read in id-ordered batches and each batch is validated with a
+ * bounded number of concurrent provider calls on the non-blocking client, then applied with two bulk
+ * updates in one transaction.
+ * <p>
+ * A payment the provider could not answer for, because it timed out or the circuit breaker is open,
+ * stays pending and is retried on the next run. A reference the provider refuses as invalid or does not
+ * know is treated like a rejected payment and cancelled. Each shard is polled in turn, by the one replica
+ * holding its {@value #LEASE_NAME} lease, so the provider is asked once per pending payment rather
+ * than once per replica. The status updates stay guarded for a run that outlives its lease.
+ */
+@Slf4j
+@Component
+@ConditionalOnBooleanProperty("reservation.credit-card.async.enabled")
+public class CreditCardConfirmationScheduler {
+
+    private static final String LEASE_NAME = "credit-card-confirmation";
+
+    private final ReservationService reservationService;
+    private final CreditCardPaymentClient creditCardPaymentClient;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration lockAtMostFor;
+
+    public CreditCardConfirmationScheduler(ReservationService reservationService,
+                                           CreditCardPaymentClient creditCardPaymentClient,
+                                           SchedulerLeaseService schedulerLeaseService,
+                                           ShardRouter shardRouter,
+                                           @Value("${reservation.credit-card.async.batch-size:100}") int batchSize,
+                                           @Value("${reservation.credit-card.async.concurrency:10}") int concurrency,
+                                           @Value("${reservation.credit-card.async.lease.lock-at-most-for-seconds:300}") long lockAtMostForSeconds) {
+        this.reservationService = reservationService;
+        this.creditCardPaymentClient = creditCardPaymentClient;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.lockAtMostFor = Duration.ofSeconds(lockAtMostForSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.credit-card.async.poll-interval-millis:500}")
+    public void confirmPendingPayments() {
+        shardRouter.forEachShard(shard -> {
+            if (!schedulerLeaseService.tryAcquire(LEASE_NAME, lockAtMostFor)) return;
+            try {
+                confirmPendingPaymentsOfShard();
+            } finally {
+                schedulerLeaseService.release(LEASE_NAME, Duration.ZERO);
+            }
+        });
+    }
+
+    private void confirmPendingPaymentsOfShard() {
+        long lastId = 0;
+        while (true) {
+            List<PendingPayment> pendingPayments = reservationService.findPendingCreditCardPayments(lastId, batchSize);
+            if (pendingPayments.isEmpty()) return;
+
+            completeBatch(pendingPayments);
+
+            lastId = pendingPayments.getLast().id();
+            if (pendingPayments.size() < batchSize) return;
+        }
+    }
+
+    private void completeBatch(List<PendingPayment> pendingPayments) {
+        List<Validation> validations = Flux.fromIterable(pendingPayments)
+                .flatMap(this::validate, concurrency)
+                .collectList()
+                .block();
+        if (validations == null || validations.isEmpty()) return;
+
+        List<Long> acceptedIds = new ArrayList<>(validations.size());
+        List<Long> rejectedIds = new ArrayList<>();
+        validations.forEach(validation -> (validation.accepted() ? acceptedIds : rejectedIds).add(validation.reservationId()));
+        reservationService.completeCreditCardPayments(acceptedIds, rejectedIds);
+    }
+
+    private Mono<Validation> validate(PendingPayment pendingPayment) {
+        return creditCardPaymentClient.validatePaymentAsync(pendingPayment.paymentReference())
+                .map(accepted -> new Validation(pendingPayment.id(), accepted))
+                .onErrorResume(PaymentProviderException.class, ex -> {
+                    log.warn("Credit card validation for reservation {} failed, retrying on the next run: {}",
+                            pendingPayment.id(), ex.getMessage());
+                    return Mono.empty();
+                })
+                // Invalid input and unknown payments are the provider's answer; asking again changes nothing.
+                .onErrorResume(IllegalStateException.class, ex -> {
+                    log.warn("Credit card payment of reservation {} rejected: {}", pendingPayment.id(), ex.getMessage());
+                    return Mono.just(new Validation(pendingPayment.id(), false));
+                });
+    }
+
+    private record Validation(long reservationId, boolean accepted) {
+    }
+}
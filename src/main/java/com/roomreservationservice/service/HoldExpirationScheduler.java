@@ -0,0 +1,67 @@
+package com.roomreservationservice.service;
+
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.service.hold.HoldTimer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives the rooms of unpaid reservations back as soon as their hold deadline passes. Every tick the
+ * {@link HoldTimer} is advanced to the current time and the holds it returns are cancelled in chunks.
+ * <p>
+ * A less frequent sweep cancels overdue holds straight from the database. It covers holds booked
+ * through other replicas and chunks whose cancellation failed, since the timer has already handed
+ * those out. Both paths only cancel reservations that are still unpaid, so running them on every
+ * replica is safe. Holds are cancelled on the shard they were booked on, and the sweep runs once per
+ * shard.
+ */
+@Slf4j
+@Component
+public class HoldExpirationScheduler {
+
+    private final ReservationService reservationService;
+    private final HoldTimer holdTimer;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+
+    public HoldExpirationScheduler(ReservationService reservationService, HoldTimer holdTimer, ShardRouter shardRouter,
+                                   @Value("${reservation.hold.chunk-size:500}") int chunkSize) {
+        this.reservationService = reservationService;
+        this.holdTimer = holdTimer;
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.hold.tick-millis:1000}")
+    public void expireDueHolds() {
+        holdTimer.expireDue(Instant.now()).forEach((shard, expiredIds) -> shardRouter.onShard(shard, () -> {
+            cancelInChunks(expiredIds);
+            return null;
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.hold.sweep-interval-millis:300000}",
+            initialDelayString = "${reservation.hold.sweep-interval-millis:300000}")
+    public void sweepOverdueHolds() {
+        AtomicInteger cancelled = new AtomicInteger();
+        shardRouter.forEachShard(shard -> cancelled.addAndGet(reservationService.cancelOverdueHolds(chunkSize)));
+        if (cancelled.get() > 0) log.info("Overdue hold sweep cancelled {} reservations", cancelled.get());
+    }
+
+    private void cancelInChunks(List<Long> expiredIds) {
+        for (int from = 0; from < expiredIds.size(); from += chunkSize) {
+            List<Long> chunk = expiredIds.subList(from, Math.min(expiredIds.size(), from + chunkSize));
+            try {
+                reservationService.cancelExpiredHolds(chunk);
+            } catch (RuntimeException ex) {
+                log.error("Cancelling {} expired holds failed, the overdue hold sweep will retry them", chunk.size(), ex);
+            }
+        }
+    }
+}
@@ -1,26 +1,134 @@
 package com.roomreservationservice.service;
 
 
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.projection.RoomNumberRange;
+import com.roomreservationservice.service.lease.SchedulerLeaseService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk expiry of unpaid bank transfers whose stay starts two or more days from now. Holds now expire
+ * at their own deadline through {@link HoldExpirationScheduler}, so this job is off by default and only
+ * runs when {@code reservation.expiration.cron} is set. Every replica fires the cron, but only the one
+ * that takes the {@value #LEASE_NAME} lease runs it. The pending rows are split into room-number
+ * partitions that a small pool of worker threads cancels in parallel; the partitions are disjoint, so
+ * workers never contend on the same rows, and there are more partitions than workers to even out
+ * skewed rooms.
+ * <p>
+ * Each shard is expired on its own, under the lease stored on that shard.
+ */
 @Slf4j
 @Component
 public class ReservationExpirationScheduler {
 
+    private static final String LEASE_NAME = "reservation-expiration";
+    private static final int DAYS_FROM_NOW = 2;
+
     private final ReservationService reservationService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+    private final int workers;
+    private final int partitions;
+    private final Duration lockAtMostFor;
+    private final Duration lockAtLeastFor;
 
-    public ReservationExpirationScheduler(ReservationService reservationService) {
+    public ReservationExpirationScheduler(ReservationService reservationService,
+                                          SchedulerLeaseService schedulerLeaseService,
+                                          ShardRouter shardRouter,
+                                          @Value("${reservation.expiration.chunk-size:500}") int chunkSize,
+                                          @Value("${reservation.expiration.workers:4}") int workers,
+                                          @Value("${reservation.expiration.partitions:16}") int partitions,
+                                          @Value("${reservation.expiration.lease.lock-at-most-for-seconds:3600}") long lockAtMostForSeconds,
+                                          @Value("${reservation.expiration.lease.lock-at-least-for-seconds:60}") long lockAtLeastForSeconds) {
         this.reservationService = reservationService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.partitions = partitions;
+        this.lockAtMostFor = Duration.ofSeconds(lockAtMostForSeconds);
+        this.lockAtLeastFor = Duration.ofSeconds(lockAtLeastForSeconds);
     }
 
-    @Scheduled(cron = "0 0 0 * * ?") // everynight at midnight
+    @Scheduled(cron = "${reservation.expiration.cron:-}")
     public void schedule() {
-        int DAYS_FROM_NOW = 2;
-        boolean success = reservationService.cancelPendingBankTransfers(DAYS_FROM_NOW);
-        log.info("Scheduled cancellation executed. Success: {}", success);
+        shardRouter.forEachShard(this::expireShard);
+    }
+
+    private void expireShard(String shard) {
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, lockAtMostFor)) {
+            log.info("Skipping scheduled cancellation on shard {}, another instance is running it", shard);
+            return;
+        }
+        try {
+            int cancelled = cancelPendingBankTransfers(shard);
+            log.info("Scheduled cancellation executed on shard {}. Cancelled: {}", shard, cancelled);
+        } finally {
+            schedulerLeaseService.release(LEASE_NAME, lockAtLeastFor);
+        }
+    }
+
+    private int cancelPendingBankTransfers(String shard) {
+        RoomNumberRange roomRange = reservationService.findPendingBankTransferRoomRange(DAYS_FROM_NOW);
+        if (roomRange == null) return 0;
+
+        List<RoomPartition> roomPartitions = partition(roomRange, partitions);
+        int cancelled = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, roomPartitions.size()),
+                Thread.ofPlatform().name("reservation-expiration-", 0).factory())) {
+            List<Future<Integer>> results = new ArrayList<>(roomPartitions.size());
+            for (RoomPartition partition : roomPartitions) {
+                results.add(executor.submit(() -> shardRouter.onShard(shard, () -> reservationService.cancelPendingBankTransfers(
+                        DAYS_FROM_NOW, chunkSize, partition.fromRoomNumber(), partition.toRoomNumber()))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                cancelled += awaitPartition(results.get(i), roomPartitions.get(i));
+            }
+        }
+        return cancelled;
+    }
+
+    // A failed partition is retried by the next run; the other partitions are independent and keep their work.
+    private static int awaitPartition(Future<Integer> result, RoomPartition partition) {
+        try {
+            return result.get();
+        } catch (ExecutionException ex) {
+            log.error("Cancelling pending bank transfers of rooms [{}, {}) failed",
+                    partition.fromRoomNumber(), partition.toRoomNumber(), ex.getCause());
+            return 0;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
     }
 
+    /**
+     * Splits {@code [min, max]} into at most {@code count} contiguous, equally wide half-open ranges.
+     */
+    private static List<RoomPartition> partition(RoomNumberRange roomRange, int count) {
+        long from = roomRange.minRoomNumber();
+        long to = roomRange.maxRoomNumber() + 1L;
+        long width = Math.max(1, (to - from + count - 1) / count);
 
+        List<RoomPartition> roomPartitions = new ArrayList<>(count);
+        for (long start = from; start < to; start += width) {
+            roomPartitions.add(new RoomPartition((int) start, (int) Math.min(to, start + width)));
+        }
+        return roomPartitions;
+    }
+
+    private record RoomPartition(int fromRoomNumber, int toRoomNumber) {
+    }
 }
@@ -1,66 +1,333 @@
 package com.roomreservationservice.service;
 
+import com.roomreservationservice.dto.BulkReservationResponse;
 import com.roomreservationservice.dto.ReservationRequest;
 import com.roomreservationservice.dto.ReservationResponse;
 import com.roomreservationservice.enums.PaymentMode;
 import com.roomreservationservice.enums.ReservationStatus;
 import com.roomreservationservice.exception.RoomAlreadyBookedException;
 import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
 import com.roomreservationservice.model.Reservation;
 import com.roomreservationservice.repository.ReservationRepository;
-import com.roomreservationservice.repository.projection.ReservationSummary;
+import com.roomreservationservice.repository.projection.PendingPayment;
+import com.roomreservationservice.repository.projection.ReservationVersion;
+import com.roomreservationservice.repository.projection.RoomNumberRange;
+import com.roomreservationservice.repository.projection.RoomStay;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import com.roomreservationservice.service.banktransfer.PaymentReferenceParser;
+import com.roomreservationservice.service.hold.HoldTimer;
+import com.roomreservationservice.service.outbox.ReservationOutbox;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
 import com.roomreservationservice.service.paymentstrategy.PaymentStrategy;
 import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class ReservationService {
 
+    private static final int DEFAULT_EXPIRATION_CHUNK_SIZE = 500;
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    // Attempts to store a request for any room of a segment while other replicas keep taking the chosen room.
+    private static final int ANY_ROOM_ATTEMPTS = 3;
+
     private final ReservationRepository reservationRepository;
     private final PaymentStrategyFactory paymentStrategyFactory;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final TransactionOperations transactionOperations;
+    private final ReservationMetrics metrics;
+    private final ReservationOutbox reservationOutbox;
+    private final ReservationReadModel readModel;
+    private final HoldTimer holdTimer;
+    private final ShardRouter shardRouter;
 
-    public ReservationService(ReservationRepository reservationRepository, PaymentStrategyFactory paymentStrategyFactory) {
+    public ReservationService(ReservationRepository reservationRepository, PaymentStrategyFactory paymentStrategyFactory,
+                              RoomAvailabilityIndex availabilityIndex, TransactionOperations transactionOperations,
+                              ReservationMetrics metrics, ReservationOutbox reservationOutbox,
+                              ReservationReadModel readModel, HoldTimer holdTimer, ShardRouter shardRouter) {
         this.reservationRepository = reservationRepository;
         this.paymentStrategyFactory = paymentStrategyFactory;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionOperations = transactionOperations;
+        this.metrics = metrics;
+        this.reservationOutbox = reservationOutbox;
+        this.readModel = readModel;
+        this.holdTimer = holdTimer;
+        this.shardRouter = shardRouter;
     }
 
-    @Transactional
+    /**
+     * Payment is processed before the database transaction is opened, so a slow payment provider
+     * never holds a pooled connection. Only the insert runs inside the transaction, on the shard of
+     * the reservation's property.
+     */
     public ReservationResponse confirmReservation(@Valid ReservationRequest reservationRequest) {
+        Timer.Sample sample = metrics.startTimer();
+        try {
+            ReservationResponse response = shardRouter.onProperty(reservationRequest.propertyId(),
+                    () -> doConfirmReservation(reservationRequest));
+            metrics.recordConfirmation(sample, reservationRequest.paymentMode(), reservationRequest.roomSegment(),
+                    response.reservationStatus(), null);
+            return response;
+        } catch (RuntimeException ex) {
+            metrics.recordConfirmation(sample, reservationRequest.paymentMode(), reservationRequest.roomSegment(),
+                    null, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Stores the held and paid reservation. When the room turns out to be booked through another
+     * replica, a request for any room of the segment is moved to the next free room, at most
+     * {@value #ANY_ROOM_ATTEMPTS} times in all; the payment outcome is kept, as it does not depend on
+     * the room.
+     */
+    private ReservationResponse doConfirmReservation(ReservationRequest reservationRequest) {
+        Reservation reservation = holdAndPay(reservationRequest);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionOperations.executeWithoutResult(status -> {
+                    reservationRepository.save(reservation);
+                    reservationOutbox.recordStatusChange(
+                            reservation.getId(), ReservationOutbox.INITIAL_VERSION, null, reservation.getStatus());
+                    readModel.reservationsCreated(List.of(reservation));
+                });
+                break;
+            } catch (DataIntegrityViolationException ex) {
+                if (!isRoomOverlap(ex)) {
+                    releaseHold(reservation);
+                    throw ex;
+                }
+                if (!reservationRequest.anyRoom() || attempt >= ANY_ROOM_ATTEMPTS) {
+                    releaseHold(reservation);
+                    throw new RoomAlreadyBookedException("Room " + reservation.getRoomNumber() +
+                            " is already booked in the selected period.");
+                }
+                moveToAnotherRoom(reservationRequest, reservation);
+            } catch (RuntimeException ex) {
+                releaseHold(reservation);
+                throw ex;
+            }
+        }
+
+        bindHold(reservation);
+        return new ReservationResponse(reservation.getId(), reservation.getStatus(), reservation.getRoomNumber());
+    }
+
+    private void moveToAnotherRoom(ReservationRequest reservationRequest, Reservation reservation) {
+        availabilityIndex.markBooked(reservation.getPropertyId(), reservation.getRoomNumber(),
+                reservation.getStartDate(), reservation.getEndDate());
+        int roomNumber = availabilityIndex.tryHoldAnyRoom(reservation.getPropertyId(), reservationRequest.roomSegment(),
+                reservation.getStartDate(), reservation.getEndDate());
+        if (roomNumber == RoomAvailabilityIndex.NO_ROOM) {
+            throw new RoomAlreadyBookedException("No " + reservationRequest.roomSegment() +
+                    " room is available in the selected period.");
+        }
+        log.info("Room {} was booked concurrently, moving the reservation to room {}", reservation.getRoomNumber(), roomNumber);
+        // The rolled back insert may have left an id and version on the entity.
+        reservation.setId(0);
+        reservation.setVersion(null);
+        reservation.setRoomNumber(roomNumber);
+    }
+
+    /**
+     * Books a group of reservations in one pass. Every request is checked against the availability
+     * index, which also catches conflicts between requests of the same batch, and requests that fail
+     * are reported back without affecting the rest. Accepted reservations are inserted together in a
+     * single transaction so Hibernate can send them as JDBC batches, which is why a batch is limited
+     * to the rooms of one property. Should a room of the batch have been booked through another
+     * replica, the batch falls back to one insert per reservation so only that request is rejected.
+     */
+    public BulkReservationResponse confirmReservations(List<ReservationRequest> reservationRequests) {
+        String propertyId = reservationRequests.isEmpty()
+                ? ReservationRequest.DEFAULT_PROPERTY
+                : reservationRequests.getFirst().propertyId();
+        if (reservationRequests.stream().anyMatch(request -> !request.propertyId().equals(propertyId))) {
+            throw new IllegalArgumentException("A bulk request can only book rooms of one property.");
+        }
+        return shardRouter.onProperty(propertyId, () -> doConfirmReservations(reservationRequests));
+    }
+
+    private BulkReservationResponse doConfirmReservations(List<ReservationRequest> reservationRequests) {
+        List<Reservation> accepted = new ArrayList<>(reservationRequests.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(reservationRequests.size());
+        List<BulkReservationResponse.Rejection> rejected = new ArrayList<>();
+
+        for (int i = 0; i < reservationRequests.size(); i++) {
+            try {
+                accepted.add(holdAndPay(reservationRequests.get(i)));
+                acceptedIndexes.add(i);
+            } catch (RuntimeException ex) {
+                // holdAndPay gives the hold back itself, so a failing item never costs the others theirs.
+                rejected.add(new BulkReservationResponse.Rejection(i, ex.getMessage()));
+            }
+        }
+
+        List<BulkReservationResponse.Confirmation> confirmed = new ArrayList<>(accepted.size());
+        boolean batched;
+        try {
+            insert(accepted);
+            batched = true;
+        } catch (DataIntegrityViolationException ex) {
+            if (!isRoomOverlap(ex)) {
+                accepted.forEach(this::releaseHold);
+                throw ex;
+            }
+            log.warn("A room of a bulk reservation was booked concurrently, storing {} reservations one by one", accepted.size());
+            batched = false;
+        } catch (RuntimeException ex) {
+            accepted.forEach(this::releaseHold);
+            throw ex;
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            if (batched) confirmed.add(bindConfirmation(acceptedIndexes.get(i), accepted.get(i)));
+            else insertIndividually(acceptedIndexes.get(i), accepted.get(i), confirmed, rejected);
+        }
+        rejected.sort(Comparator.comparingInt(BulkReservationResponse.Rejection::requestIndex));
+
+        log.info("Bulk reservation processed: {} accepted, {} rejected", confirmed.size(), rejected.size());
+        return new BulkReservationResponse(confirmed, rejected);
+    }
+
+    private void insert(List<Reservation> reservations) {
+        transactionOperations.executeWithoutResult(status -> {
+            reservationRepository.saveAll(reservations);
+            reservations.forEach(reservation -> reservationOutbox.recordStatusChange(
+                    reservation.getId(), ReservationOutbox.INITIAL_VERSION, null, reservation.getStatus()));
+            readModel.reservationsCreated(reservations);
+        });
+    }
+
+    private void insertIndividually(int requestIndex, Reservation reservation,
+                                    List<BulkReservationResponse.Confirmation> confirmed,
+                                    List<BulkReservationResponse.Rejection> rejected) {
+        // The rolled back batch may have left an id and version on the entity.
+        reservation.setId(0);
+        reservation.setVersion(null);
+        try {
+            insert(List.of(reservation));
+            confirmed.add(bindConfirmation(requestIndex, reservation));
+        } catch (RuntimeException ex) {
+            releaseHold(reservation);
+            rejected.add(new BulkReservationResponse.Rejection(requestIndex,
+                    ex instanceof DataIntegrityViolationException violation && isRoomOverlap(violation)
+                            ? "Room " + reservation.getRoomNumber() + " is already booked in the selected period."
+                            : ex.getMessage()));
+        }
+    }
+
+    private BulkReservationResponse.Confirmation bindConfirmation(int requestIndex, Reservation reservation) {
+        bindHold(reservation);
+        return new BulkReservationResponse.Confirmation(
+                requestIndex, reservation.getId(), reservation.getStatus(), reservation.getRoomNumber());
+    }
+
+    /**
+     * Holds the room and processes the payment. The hold is taken before payment so a guest is
+     * never charged for a room that is taken, and it is given back if payment fails.
+     */
+    private Reservation holdAndPay(ReservationRequest reservationRequest) {
+        Reservation reservation = holdRoom(reservationRequest);
+        try {
+            PaymentStrategy strategy = paymentStrategyFactory.getStrategy(reservationRequest.paymentMode());
+            setPaymentStatus(reservation, strategy.processPayment(reservation));
+            return reservation;
+        } catch (RuntimeException ex) {
+            releaseHold(reservation);
+            throw ex;
+        }
+    }
+
+    /**
+     * Validates the request and holds its room in the availability index, returning the unsaved
+     * reservation without a status. A request without a room number is given the first room of its
+     * segment that is free for the whole stay. The caller owns the hold: it must either
+     * {@link #bindHold bind} it once the reservation is stored or {@link #releaseHold release} it.
+     */
+    public Reservation holdRoom(ReservationRequest reservationRequest) {
         boolean maxReservationDays = reservationRequest.reservationEndDate().isAfter(reservationRequest.reservationStartDate().plusDays(30));
         if (maxReservationDays) {
             throw new IllegalArgumentException("Reservations cannot be more than 30 days.");
         }
 
-        boolean roomOccupied = reservationRepository.existsByRoomNumberAndDateRange(
-                reservationRequest.roomNumber(),
-                reservationRequest.reservationStartDate(),
-                reservationRequest.reservationEndDate()
-        );
+        String propertyId = reservationRequest.propertyId();
+        int roomNumber = reservationRequest.roomNumber();
+        LocalDate startDate = reservationRequest.reservationStartDate();
+        LocalDate endDate = reservationRequest.reservationEndDate();
 
-        if (roomOccupied) {
-            throw new RoomAlreadyBookedException("Room " + reservationRequest.roomNumber() +
-                    " is already booked in the selected period.");
+        Timer.Sample sample = metrics.startTimer();
+        boolean held;
+        if (reservationRequest.anyRoom()) {
+            roomNumber = availabilityIndex.tryHoldAnyRoom(propertyId, reservationRequest.roomSegment(), startDate, endDate);
+            held = roomNumber != RoomAvailabilityIndex.NO_ROOM;
+        } else {
+            held = availabilityIndex.tryHold(propertyId, roomNumber, startDate, endDate);
+        }
+        metrics.recordAvailabilityCheck(sample, held);
+        if (!held) {
+            throw new RoomAlreadyBookedException(reservationRequest.anyRoom()
+                    ? "No " + reservationRequest.roomSegment() + " room is available in the selected period."
+                    : "Room " + roomNumber + " is already booked in the selected period.");
         }
+        return newReservation(reservationRequest, roomNumber);
+    }
 
+    /**
+     * Sets the status the payment strategy decided on. A reservation left waiting for payment also
+     * gets the hold deadline of its payment mode, after which its room is given back.
+     */
+    public void setPaymentStatus(Reservation reservation, ReservationStatus status) {
+        reservation.setStatus(status);
+        if (status == ReservationStatus.PENDING_PAYMENT) {
+            reservation.setHoldExpiresAt(holdTimer.deadlineFor(reservation.getPaymentMode(), Instant.now()));
+        }
+    }
 
-        PaymentStrategy strategy = paymentStrategyFactory.getStrategy(reservationRequest.paymentMode());
-        Reservation reservation = setReservation(reservationRequest, strategy);
+    public void bindHold(Reservation reservation) {
+        availabilityIndex.bind(new RoomStay(reservation.getId(), reservation.getPropertyId(), reservation.getRoomNumber(),
+                reservation.getStartDate(), reservation.getEndDate()));
+        if (reservation.getHoldExpiresAt() != null) holdTimer.register(reservation.getId(), reservation.getHoldExpiresAt());
+    }
 
-        reservationRepository.save(reservation);
-        return new ReservationResponse(reservation.getId(), reservation.getStatus());
+    public void releaseHold(Reservation reservation) {
+        availabilityIndex.release(reservation.getPropertyId(), reservation.getRoomNumber(),
+                reservation.getStartDate(), reservation.getEndDate());
     }
 
-    private Reservation setReservation(ReservationRequest reservationRequest, PaymentStrategy strategy) {
+    // The availability index only sees this instance; the exclusion constraint catches bookings made elsewhere.
+    private static boolean isRoomOverlap(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Reservation newReservation(ReservationRequest reservationRequest, int roomNumber) {
         Reservation reservation = new Reservation();
-        reservation.setRoomNumber(reservationRequest.roomNumber());
+        reservation.setPropertyId(reservationRequest.propertyId());
+        reservation.setRoomNumber(roomNumber);
         reservation.setCustomerName(reservationRequest.customerName());
         reservation.setStartDate(reservationRequest.reservationStartDate());
         reservation.setEndDate(reservationRequest.reservationEndDate());
@@ -68,52 +335,200 @@ public class ReservationService {
         reservation.setPaymentMode(reservationRequest.paymentMode());
         reservation.setPaymentReference(reservationRequest.paymentReference());
         reservation.setTotalAmount(reservationRequest.totalAmount());
-        reservation.setStatus(strategy.processPayment(reservation));
         return reservation;
     }
 
-    @Transactional
     public boolean cancelPendingBankTransfers(int daysFromNow) {
+        return cancelPendingBankTransfers(daysFromNow, DEFAULT_EXPIRATION_CHUNK_SIZE);
+    }
+
+    public boolean cancelPendingBankTransfers(int daysFromNow, int chunkSize) {
+        return cancelPendingBankTransfers(daysFromNow, chunkSize, Integer.MIN_VALUE, Integer.MAX_VALUE) > 0;
+    }
+
+    /**
+     * Room numbers of the pending bank transfers the expiration job has to look at, or {@code null}
+     * when there are none. Used to split the job into room-number partitions.
+     */
+    public RoomNumberRange findPendingBankTransferRoomRange(int daysFromNow) {
+        RoomNumberRange range = reservationRepository.findPendingBankTransferRoomRange(
+                LocalDate.now().plusDays(daysFromNow), PaymentMode.BANK_TRANSFER, ReservationStatus.PENDING_PAYMENT);
+        return range == null || range.minRoomNumber() == null ? null : range;
+    }
+
+    /**
+     * Cancels pending bank transfers of rooms in {@code [fromRoomNumber, toRoomNumber)} in id order,
+     * one chunk per short transaction, so memory use and row-lock duration stay bounded however large
+     * the backlog is. Cancelled rows drop out of the pending filter, so a run that stops half-way simply
+     * resumes from the remaining rows next time. Disjoint room ranges can be processed in parallel.
+     *
+     * @return the number of reservations cancelled
+     */
+    public int cancelPendingBankTransfers(int daysFromNow, int chunkSize, int fromRoomNumber, int toRoomNumber) {
+        Timer.Sample sample = metrics.startTimer();
         LocalDate targetDate = LocalDate.now().plusDays(daysFromNow);
-        List<ReservationSummary> pendingReservationList =
-                reservationRepository.findPendingBankTransfers(
-                        targetDate,
-                        PaymentMode.BANK_TRANSFER,
-                        ReservationStatus.PENDING_PAYMENT
-                );
+        long lastId = 0;
+        int chunks = 0;
+        int cancelled = 0;
+
+        while (true) {
+            List<Long> idList = reservationRepository.findPendingBankTransferIdsAfter(
+                    lastId,
+                    fromRoomNumber,
+                    toRoomNumber,
+                    targetDate,
+                    PaymentMode.BANK_TRANSFER,
+                    ReservationStatus.PENDING_PAYMENT,
+                    Limit.of(chunkSize)
+            );
+            if (idList.isEmpty()) break;
 
-        List<Long> idList = pendingReservationList.stream()
-                .map(ReservationSummary::id).collect(Collectors.toList());
-        log.info("Found {} pending bank transfers to cancel", idList);
-        int updatedRows = reservationRepository.updateStatusByIds(idList, ReservationStatus.CANCELLED);
-        return updatedRows > 0;
+            List<Long> cancelledIds = transactionOperations.execute(status ->
+                    changeStatus(idList, ReservationStatus.PENDING_PAYMENT, ReservationStatus.CANCELLED));
+            int updated = cancelledIds == null ? 0 : cancelledIds.size();
+            if (updated > 0) availabilityIndex.releaseReservations(cancelledIds);
+
+            lastId = idList.getLast();
+            chunks++;
+            cancelled += updated;
+            log.info("Pending bank transfer expiry rooms [{}, {}) chunk {}: cancelled {} of {}, {} cancelled so far",
+                    fromRoomNumber, toRoomNumber, chunks, updated, idList.size(), cancelled);
+            log.debug("Cancelled pending bank transfer chunk ids: {}", idList);
+
+            if (idList.size() < chunkSize) break;
+        }
+
+        log.info("Cancelled {} pending bank transfers of rooms [{}, {}) in {} chunks",
+                cancelled, fromRoomNumber, toRoomNumber, chunks);
+        metrics.recordExpiration(sample, cancelled);
+        return cancelled;
     }
 
-    @Transactional
-    public boolean handleBankTransferPayment(BankTransferPaymentEvent event) {
+    /**
+     * Credit card reservations still waiting for the provider's answer, in id order starting after
+     * {@code afterId}. Only written when credit card payments are confirmed asynchronously.
+     */
+    public List<PendingPayment> findPendingCreditCardPayments(long afterId, int limit) {
+        return reservationRepository.findPendingPaymentsAfter(
+                afterId, PaymentMode.CREDIT_CARD, ReservationStatus.PENDING_PAYMENT, Limit.of(limit));
+    }
 
-        String[] parts = event.transactionDescription().split(" ");
-        if (parts.length < 2 || !parts[1].startsWith("P")) {
-            log.error("Invalid transaction description: {}", event.transactionDescription());
-            return false;
+    /**
+     * Applies the provider's answers for a batch of pending credit card payments in one transaction:
+     * accepted payments are confirmed, rejected ones are cancelled and their rooms freed. Reservations
+     * that already left {@code PENDING_PAYMENT} are skipped by the guarded updates.
+     *
+     * @return the number of reservations confirmed
+     */
+    public int completeCreditCardPayments(List<Long> acceptedIds, List<Long> rejectedIds) {
+        Timer.Sample sample = metrics.startTimer();
+        List<Long> cancelledIds = new ArrayList<>(rejectedIds.size());
+        Integer confirmed = transactionOperations.execute(status -> {
+            if (!rejectedIds.isEmpty()) {
+                cancelledIds.addAll(changeStatus(rejectedIds, ReservationStatus.PENDING_PAYMENT, ReservationStatus.CANCELLED));
+            }
+            return acceptedIds.isEmpty() ? 0
+                    : changeStatus(acceptedIds, ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED).size();
+        });
+        if (!cancelledIds.isEmpty()) availabilityIndex.releaseReservations(cancelledIds);
+
+        int confirmedCount = confirmed == null ? 0 : confirmed;
+        log.info("Credit card payments completed: {} confirmed, {} cancelled", confirmedCount, cancelledIds.size());
+        metrics.recordCreditCardCompletions(sample, confirmedCount, cancelledIds.size());
+        return confirmedCount;
+    }
+
+    /**
+     * Cancels the given reservations whose hold deadline has passed and frees their rooms. Reservations
+     * paid in the meantime are no longer {@code PENDING_PAYMENT} and are left alone.
+     *
+     * @return the number of reservations cancelled
+     */
+    public int cancelExpiredHolds(List<Long> idList) {
+        Timer.Sample sample = metrics.startTimer();
+        List<Long> cancelledIds = transactionOperations.execute(status ->
+                changeStatus(idList, ReservationStatus.PENDING_PAYMENT, ReservationStatus.CANCELLED));
+        int cancelled = cancelledIds == null ? 0 : cancelledIds.size();
+        if (cancelled > 0) {
+            availabilityIndex.releaseReservations(cancelledIds);
+            log.info("Cancelled {} of {} reservations whose hold expired", cancelled, idList.size());
         }
+        metrics.recordHoldExpiration(sample, cancelled);
+        return cancelled;
+    }
 
-        long reservationId;
-        try {
-            reservationId = Long.parseLong(parts[1].substring(1)); // remove 'P'
-        } catch (NumberFormatException ex) {
-            log.error("Invalid reservation id in transaction description: {}", event.transactionDescription());
-            return false;
+    /**
+     * Cancels every pending reservation whose hold deadline is already behind us, in id order and one
+     * chunk per transaction. Catches holds this instance's {@link HoldTimer} does not know about, such
+     * as those booked through another replica that stopped before they expired.
+     *
+     * @return the number of reservations cancelled
+     */
+    public int cancelOverdueHolds(int chunkSize) {
+        Instant now = Instant.now();
+        long lastId = 0;
+        int cancelled = 0;
+        while (true) {
+            List<Long> idList = reservationRepository.findExpiredHoldIdsAfter(
+                    lastId, ReservationStatus.PENDING_PAYMENT, now, Limit.of(chunkSize));
+            if (idList.isEmpty()) break;
+
+            cancelled += cancelExpiredHolds(idList);
+            lastId = idList.getLast();
+            if (idList.size() < chunkSize) break;
         }
+        return cancelled;
+    }
+
+    /**
+     * Moves the given reservations from one status to another with a guarded bulk update, records
+     * the change in the outbox, evicts the changed reservations from the read model and returns the
+     * ids that actually changed. Rows that left the expected status between the select and the update
+     * are skipped. The changed rows are read back for the versions the update gave them, which the
+     * outbox events carry; the update still holds their locks, so no other change can come between.
+     * Must run inside a transaction.
+     */
+    private List<Long> changeStatus(List<Long> idList, ReservationStatus currentStatus, ReservationStatus newStatus) {
+        int updated = reservationRepository.updateStatusByIdsAndStatus(idList, currentStatus, newStatus);
+        if (updated == 0) return List.of();
+
+        List<ReservationVersion> changed = reservationRepository.findVersionsByIdInAndStatus(idList, newStatus);
+        List<Long> changedIds = changed.stream().map(ReservationVersion::id).toList();
+        reservationOutbox.recordStatusChanges(changed, currentStatus, newStatus);
+        readModel.statusChanged(changedIds);
+        return changedIds;
+    }
+
+    /**
+     * Confirms the reservation named in the description of a bank transfer once it is fully paid.
+     * The event carries no property, so the reservation is looked up on the shard of its id block
+     * first and on the other shards after that, each in its own transaction.
+     */
+    public boolean handleBankTransferPayment(BankTransferPaymentEvent event) {
+        Timer.Sample sample = metrics.startTimer();
+        boolean confirmed = applyBankTransferPayment(event);
+        metrics.recordBankTransferEvents(sample, 1, confirmed ? 1 : 0);
+        return confirmed;
+    }
+
+    private boolean applyBankTransferPayment(BankTransferPaymentEvent event) {
 
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElse(null);
+        long reservationId = parseReservationId(event.transactionDescription());
+        if (reservationId < 0) return false;
 
-        if (reservation == null) {
-            log.error("Reservation not found for id {}", reservationId);
-            return false;
+        for (String shard : shardRouter.shardsForId(reservationId)) {
+            Boolean confirmed = shardRouter.onShard(shard, () -> transactionOperations.execute(status ->
+                    reservationRepository.findById(reservationId)
+                            .map(reservation -> applyBankTransferPayment(reservationId, reservation, event))
+                            .orElse(null)));
+            if (confirmed != null) return confirmed;
         }
 
+        log.error("Reservation not found for id {}", reservationId);
+        return false;
+    }
+
+    private boolean applyBankTransferPayment(long reservationId, Reservation reservation, BankTransferPaymentEvent event) {
         // Idempotency guard
         if (reservation.getStatus() != ReservationStatus.PENDING_PAYMENT) {
             log.info("Ignoring payment event for reservation {}, status={}", reservationId, reservation.getStatus());
@@ -122,7 +537,11 @@ public class ReservationService {
 
         if (event.amountReceived() == reservation.getTotalAmount()) {
             reservation.setStatus(ReservationStatus.CONFIRMED);
-            reservationRepository.save(reservation);
+            // Flushed so that the outbox event carries the version this change gives the row.
+            reservationRepository.saveAndFlush(reservation);
+            reservationOutbox.recordStatusChange(reservationId, reservation.getVersion(),
+                    ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED);
+            readModel.statusChanged(List.of(reservationId));
             log.info("Reservation {} CONFIRMED via bank transfer", reservationId);
             return true;
         }
@@ -132,6 +551,92 @@ public class ReservationService {
 
         return false;
     }
-}
 
+    /**
+     * Batch variant of {@link #handleBankTransferPayment(BankTransferPaymentEvent)} for settlement
+     * files: the referenced reservations of a shard are loaded with one query and every fully paid
+     * one is confirmed with one bulk update, in one transaction per shard. Each reservation is looked
+     * up on the shard of its id block first; only the ones not found there are looked up on the others.
+     *
+     * @return the number of reservations confirmed by this batch
+     */
+    public int handleBankTransferPayments(List<BankTransferPaymentEvent> events) {
+        Timer.Sample sample = metrics.startTimer();
+        int confirmed = applyBankTransferPayments(events);
+        metrics.recordBankTransferEvents(sample, events.size(), confirmed);
+        return confirmed;
+    }
+
+    private int applyBankTransferPayments(List<BankTransferPaymentEvent> events) {
+        // Several transfers may reference the same reservation, e.g. a short payment followed by the full one.
+        Map<Long, List<BankTransferPaymentEvent>> unmatchedEvents = new LinkedHashMap<>();
+        for (BankTransferPaymentEvent event : events) {
+            long reservationId = parseReservationId(event.transactionDescription());
+            if (reservationId >= 0) unmatchedEvents.computeIfAbsent(reservationId, id -> new ArrayList<>()).add(event);
+        }
+        if (unmatchedEvents.isEmpty()) return 0;
+
+        int confirmed = 0;
+        // Round 0 asks the shard of each id's block, later rounds the other shards for what is still unmatched.
+        for (int round = 0; round < shardRouter.shards().size() && !unmatchedEvents.isEmpty(); round++) {
+            Map<String, List<Long>> idsByShard = new LinkedHashMap<>();
+            for (Long reservationId : unmatchedEvents.keySet()) {
+                idsByShard.computeIfAbsent(shardRouter.shardsForId(reservationId).get(round), shard -> new ArrayList<>())
+                        .add(reservationId);
+            }
+            for (Map.Entry<String, List<Long>> shardIds : idsByShard.entrySet()) {
+                Integer shardConfirmed = shardRouter.onShard(shardIds.getKey(), () -> transactionOperations.execute(status ->
+                        applyBankTransferPayments(unmatchedEvents, shardIds.getValue())));
+                confirmed += shardConfirmed == null ? 0 : shardConfirmed;
+            }
+        }
+        unmatchedEvents.keySet().forEach(reservationId -> log.error("Reservation not found for id {}", reservationId));
 
+        if (confirmed > 0) log.info("Confirmed {} of {} bank transfer payment events", confirmed, events.size());
+        return confirmed;
+    }
+
+    // Applies the events of the given reservations that live on the current shard and removes them from
+    // unmatchedEvents. The events of a reservation are applied in order, so the first one paying the full
+    // amount confirms it.
+    private int applyBankTransferPayments(Map<Long, List<BankTransferPaymentEvent>> unmatchedEvents, List<Long> reservationIds) {
+        Map<Long, Reservation> reservationsById = new HashMap<>();
+        reservationRepository.findAllById(Set.copyOf(reservationIds))
+                .forEach(reservation -> reservationsById.put(reservation.getId(), reservation));
+
+        List<Long> confirmIds = new ArrayList<>();
+        for (Long reservationId : reservationIds) {
+            Reservation reservation = reservationsById.get(reservationId);
+            if (reservation == null) continue;
+
+            List<BankTransferPaymentEvent> reservationEvents = unmatchedEvents.remove(reservationId);
+            if (reservation.getStatus() != ReservationStatus.PENDING_PAYMENT) {
+                log.info("Ignoring payment event for reservation {}, status={}", reservationId, reservation.getStatus());
+                continue;
+            }
+            for (BankTransferPaymentEvent event : reservationEvents) {
+                if (event.amountReceived() == reservation.getTotalAmount()) {
+                    confirmIds.add(reservationId);
+                    break;
+                }
+                log.warn("Bank transfer payment amount mismatch for reservation {}, expected={}, received={}",
+                        reservationId, reservation.getTotalAmount(), event.amountReceived());
+            }
+        }
+        if (confirmIds.isEmpty()) return 0;
+
+        return changeStatus(confirmIds, ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED).size();
+    }
+
+    /**
+     * Extracts the reservation id from a description such as {@code "1401541457 P4145478"}.
+     * Returns -1 and logs the reason when the description carries no valid reference.
+     */
+    private long parseReservationId(String transactionDescription) {
+        long reservationId = PaymentReferenceParser.parseReservationId(transactionDescription);
+        if (reservationId == PaymentReferenceParser.NO_REFERENCE) {
+            log.error("Invalid transaction description: {}", transactionDescription);
+        }
+        return reservationId;
+    }
+}
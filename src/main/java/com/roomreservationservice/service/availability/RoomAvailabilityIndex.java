@@ -0,0 +1,459 @@
+package com.roomreservationservice.service.availability;
+
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.projection.RoomStay;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory occupancy index keyed by property and room number. Every room holds one bit per night,
+ * counted from the day the index was created, so an overlap check is a single
+ * {@link BitSet#nextSetBit(int)} call instead of a COUNT query against the database.
+ * <p>
+ * The index is warmed from the reservations table of every shard at startup and updated by
+ * {@code ReservationService} whenever this instance stores or cancels a reservation. Cancellations
+ * made by other replicas never reach it, so a night it reports as taken may have been freed since.
+ * Before a hold or a search trusts such a night it is re-checked against the database, and nights
+ * the database no longer has booked are cleared. Bookings made through other replicas never reach it
+ * either; a hold on such a room is caught by the database's exclusion constraint, and a search asks
+ * the database about the rooms it would report free. A "booked" answer is remembered for the room until
+ * the room changes or {@value #BOOKED_ANSWER_TTL_SECONDS} seconds pass, so repeated requests for a
+ * room that really is booked are refused from memory. The re-checks block on JDBC, so reactive callers
+ * run holds and searches off the event loop. Nights held on this instance for a reservation that is
+ * not stored yet are tracked separately and never cleared that way.
+ * <p>
+ * For the rooms of a property's catalogue it also keeps, per segment, one bit set per night with a
+ * bit for every room of the segment that is taken that night. OR-ing the nights of a stay gives
+ * the taken rooms of the whole period, so "any free room of the segment" is one
+ * {@link BitSet#nextClearBit(int)} away instead of a probe per room.
+ */
+@Slf4j
+@Component
+public class RoomAvailabilityIndex {
+
+    public static final int NO_ROOM = -1;
+
+    // Bounds how long a cancellation made through another replica goes unnoticed for a room asked for again and again.
+    private static final long BOOKED_ANSWER_TTL_SECONDS = 5;
+    private static final long BOOKED_ANSWER_TTL_NANOS = TimeUnit.SECONDS.toNanos(BOOKED_ANSWER_TTL_SECONDS);
+
+    private final ReservationRepository reservationRepository;
+    private final HotelProperties hotelProperties;
+    private final ShardRouter shardRouter;
+    private final LocalDate origin;
+    private final Map<String, PropertyRooms> properties = new ConcurrentHashMap<>();
+    private final Map<Long, RoomStay> staysById = new ConcurrentHashMap<>();
+
+    public RoomAvailabilityIndex(ReservationRepository reservationRepository, HotelProperties hotelProperties,
+                                 ShardRouter shardRouter) {
+        this.reservationRepository = reservationRepository;
+        this.hotelProperties = hotelProperties;
+        this.shardRouter = shardRouter;
+        this.origin = LocalDate.now();
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        AtomicInteger activeStays = new AtomicInteger();
+        shardRouter.forEachShard(shard -> {
+            List<RoomStay> stays = reservationRepository.findActiveStays(origin);
+            stays.forEach(this::register);
+            activeStays.addAndGet(stays.size());
+        });
+        log.info("Room availability index warmed up with {} active stays", activeStays.get());
+    }
+
+    /**
+     * Whether the index has any night between the given dates taken. Answered from memory only, so
+     * it may report nights another replica has freed since.
+     */
+    public boolean isOccupied(String propertyId, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        PropertyRooms rooms = properties.get(propertyId);
+        if (rooms == null) return false;
+
+        RoomNights room = rooms.occupancy.get(roomNumber);
+        if (room == null) return false;
+
+        synchronized (room) {
+            return !room.isFree(offset(startDate), offset(endDate));
+        }
+    }
+
+    /**
+     * Rooms of the list that are free on every night between the given dates. The index only learns
+     * of bookings made through this instance, so every room it cannot rule out from memory is checked
+     * against the database in one query: rooms booked through other replicas are left out, and nights
+     * the index has taken but the database no longer has booked are reclaimed and reported free. Rooms
+     * held on this instance, or recently confirmed booked by the database, are left out without asking.
+     */
+    public List<Integer> findAvailableRooms(String propertyId, List<Integer> roomNumbers, LocalDate startDate, LocalDate endDate) {
+        PropertyRooms rooms = rooms(propertyId);
+        int from = offset(startDate);
+        int to = offset(endDate);
+
+        long now = System.nanoTime();
+        List<Integer> candidates = new ArrayList<>(roomNumbers.size());
+        Map<Integer, Long> taken = new HashMap<>();
+        for (int roomNumber : roomNumbers) {
+            RoomNights room = rooms.occupancy.get(roomNumber);
+            if (room == null) {
+                candidates.add(roomNumber);
+                continue;
+            }
+            synchronized (room) {
+                if (room.pendingOverlaps(from, to) || room.knownBooked(from, to, now)) continue;
+                candidates.add(roomNumber);
+                if (!room.isFree(from, to)) taken.put(roomNumber, room.version);
+            }
+        }
+        if (candidates.isEmpty()) return List.of();
+
+        Set<Integer> booked = new HashSet<>(shardRouter.onProperty(propertyId, () ->
+                reservationRepository.findBookedRoomNumbers(propertyId, candidates, startDate, endDate)));
+        taken.forEach((roomNumber, seenVersion) -> {
+            if (booked.contains(roomNumber)) rememberBooked(rooms, roomNumber, from, to, seenVersion);
+            else reclaim(rooms, roomNumber, from, to, seenVersion, false);
+        });
+
+        List<Integer> available = new ArrayList<>(candidates.size());
+        for (int roomNumber : candidates) {
+            if (!booked.contains(roomNumber) && !isOccupied(propertyId, roomNumber, startDate, endDate)) available.add(roomNumber);
+        }
+        return available;
+    }
+
+    /**
+     * Atomically checks that the nights between the given dates are free and marks them as taken.
+     * Nights the index has taken are re-checked against the database before the hold is refused,
+     * unless the database recently confirmed them booked. Returns {@code false} without changing
+     * anything when any night is taken.
+     */
+    public boolean tryHold(String propertyId, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        PropertyRooms rooms = rooms(propertyId);
+        int from = offset(startDate);
+        int to = offset(endDate);
+
+        if (tryHoldNights(rooms, roomNumber, from, to)) return true;
+
+        RoomNights room = rooms.room(roomNumber);
+        long seenVersion;
+        synchronized (room) {
+            if (room.pendingOverlaps(from, to) || room.knownBooked(from, to, System.nanoTime())) return false;
+            seenVersion = room.version;
+        }
+        if (isBookedInDatabase(propertyId, roomNumber, startDate, endDate)) {
+            rememberBooked(rooms, roomNumber, from, to, seenVersion);
+            return false;
+        }
+        return reclaim(rooms, roomNumber, from, to, seenVersion, true);
+    }
+
+    /**
+     * Holds the first room of the segment, in catalogue order, that is free on every night between
+     * the given dates. When the index has every room taken, those rooms are re-checked against the
+     * database once and the first stale one is held. Returns the held room number, or
+     * {@link #NO_ROOM} when the segment is full.
+     */
+    public int tryHoldAnyRoom(String propertyId, RoomSegment roomSegment, LocalDate startDate, LocalDate endDate) {
+        PropertyRooms rooms = rooms(propertyId);
+        SegmentCalendar calendar = rooms.calendars.get(roomSegment);
+        if (calendar == null) return NO_ROOM;
+
+        int from = offset(startDate);
+        int to = offset(endDate);
+        // tryHoldNights stays the source of truth: a candidate taken concurrently simply fails and the next one is tried.
+        synchronized (calendar) {
+            BitSet taken = calendar.takenDuring(from, to);
+            for (int position = taken.nextClearBit(0); position < calendar.rooms.size(); position = taken.nextClearBit(position + 1)) {
+                int roomNumber = calendar.rooms.get(position);
+                if (tryHoldNights(rooms, roomNumber, from, to)) return roomNumber;
+            }
+        }
+
+        // Every room looks taken; the database is only asked outside the segment lock.
+        long now = System.nanoTime();
+        Map<Integer, Long> candidates = new HashMap<>();
+        for (int roomNumber : calendar.rooms) {
+            RoomNights room = rooms.occupancy.get(roomNumber);
+            if (room == null) continue;
+            synchronized (room) {
+                if (!room.pendingOverlaps(from, to) && !room.knownBooked(from, to, now)) candidates.put(roomNumber, room.version);
+            }
+        }
+        if (candidates.isEmpty()) return NO_ROOM;
+
+        List<Integer> booked = shardRouter.onProperty(propertyId, () ->
+                reservationRepository.findBookedRoomNumbers(propertyId, List.copyOf(candidates.keySet()), startDate, endDate));
+        for (int roomNumber : calendar.rooms) {
+            Long seenVersion = candidates.get(roomNumber);
+            if (seenVersion == null) continue;
+            if (booked.contains(roomNumber)) rememberBooked(rooms, roomNumber, from, to, seenVersion);
+            else if (reclaim(rooms, roomNumber, from, to, seenVersion, true)) return roomNumber;
+        }
+        return NO_ROOM;
+    }
+
+    public void release(String propertyId, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        PropertyRooms rooms = properties.get(propertyId);
+        if (rooms == null) return;
+
+        RoomNights room = rooms.occupancy.get(roomNumber);
+        if (room == null) return;
+
+        int from = offset(startDate);
+        int to = offset(endDate);
+        synchronized (room) {
+            room.removePending(from, to);
+            room.clear(from, to);
+        }
+        markSegment(rooms, roomNumber, from, to, false);
+    }
+
+    /**
+     * Turns a hold into nights booked elsewhere, for a room the database refused because another
+     * instance booked it first. The nights stay taken, so the next allocation moves on to another room.
+     */
+    public void markBooked(String propertyId, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        PropertyRooms rooms = rooms(propertyId);
+        RoomNights room = rooms.room(roomNumber);
+        int from = offset(startDate);
+        int to = offset(endDate);
+        synchronized (room) {
+            room.removePending(from, to);
+            room.set(from, to);
+        }
+        markSegment(rooms, roomNumber, from, to, true);
+    }
+
+    /**
+     * Ties a hold to its stored reservation, so it can be released by id and is no longer treated as
+     * pending.
+     */
+    public void bind(RoomStay stay) {
+        staysById.put(stay.id(), stay);
+        PropertyRooms rooms = properties.get(stay.propertyId());
+        if (rooms == null) return;
+
+        RoomNights room = rooms.occupancy.get(stay.roomNumber());
+        if (room == null) return;
+
+        synchronized (room) {
+            room.removePending(offset(stay.startDate()), offset(stay.endDate()));
+        }
+    }
+
+    public void releaseReservations(Collection<Long> reservationIds) {
+        reservationIds.forEach(id -> {
+            RoomStay stay = staysById.remove(id);
+            if (stay != null) release(stay.propertyId(), stay.roomNumber(), stay.startDate(), stay.endDate());
+        });
+    }
+
+    private boolean tryHoldNights(PropertyRooms rooms, int roomNumber, int from, int to) {
+        RoomNights room = rooms.room(roomNumber);
+        synchronized (room) {
+            if (!room.isFree(from, to)) return false;
+            room.hold(from, to);
+        }
+        markSegment(rooms, roomNumber, from, to, true);
+        return true;
+    }
+
+    private static void rememberBooked(PropertyRooms rooms, int roomNumber, int from, int to, long seenVersion) {
+        RoomNights room = rooms.room(roomNumber);
+        synchronized (room) {
+            room.rememberBooked(from, to, seenVersion, System.nanoTime());
+        }
+    }
+
+    /**
+     * Clears nights the database has no booking for and optionally holds them. Refused when the room
+     * changed since it was looked at, since the database answer may then predate a new booking, or
+     * when a pending hold of this instance covers any of the nights.
+     */
+    private boolean reclaim(PropertyRooms rooms, int roomNumber, int from, int to, long seenVersion, boolean hold) {
+        RoomNights room = rooms.room(roomNumber);
+        synchronized (room) {
+            if (room.version != seenVersion || room.pendingOverlaps(from, to)) return false;
+            room.clear(from, to);
+            if (hold) room.hold(from, to);
+        }
+        log.debug("Reclaimed nights [{}, {}) of room {} that are no longer booked", from, to, roomNumber);
+        markSegment(rooms, roomNumber, from, to, hold);
+        return true;
+    }
+
+    private boolean isBookedInDatabase(String propertyId, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        return shardRouter.onProperty(propertyId, () ->
+                reservationRepository.existsByPropertyIdAndRoomNumberAndDateRange(propertyId, roomNumber, startDate, endDate));
+    }
+
+    private void register(RoomStay stay) {
+        PropertyRooms rooms = rooms(stay.propertyId());
+        RoomNights room = rooms.room(stay.roomNumber());
+        int from = offset(stay.startDate());
+        int to = offset(stay.endDate());
+        synchronized (room) {
+            room.set(from, to);
+        }
+        markSegment(rooms, stay.roomNumber(), from, to, true);
+        staysById.put(stay.id(), stay);
+    }
+
+    private PropertyRooms rooms(String propertyId) {
+        return properties.computeIfAbsent(propertyId, id -> new PropertyRooms(hotelProperties.roomsOf(id)));
+    }
+
+    // Called after the room's own lock is released, so locks are only ever nested segment -> room.
+    private static void markSegment(PropertyRooms rooms, int roomNumber, int from, int to, boolean taken) {
+        RoomSlot slot = rooms.slotsByRoom.get(roomNumber);
+        if (slot == null) return;
+
+        synchronized (slot.calendar()) {
+            slot.calendar().mark(slot.position(), from, to, taken);
+        }
+    }
+
+    // Nights before the origin are in the past and can no longer be booked, so they collapse onto bit 0.
+    private int offset(LocalDate date) {
+        return (int) Math.max(0, ChronoUnit.DAYS.between(origin, date));
+    }
+
+    private record RoomSlot(SegmentCalendar calendar, int position) {
+    }
+
+    /**
+     * Occupancy and segment calendars of one property. The catalogue maps are filled once on creation
+     * and only read afterwards.
+     */
+    private static final class PropertyRooms {
+
+        private final Map<Integer, RoomNights> occupancy = new ConcurrentHashMap<>();
+        private final Map<RoomSegment, SegmentCalendar> calendars = new EnumMap<>(RoomSegment.class);
+        private final Map<Integer, RoomSlot> slotsByRoom = new HashMap<>();
+
+        private PropertyRooms(Map<RoomSegment, List<Integer>> catalogue) {
+            catalogue.forEach((segment, rooms) -> {
+                SegmentCalendar calendar = new SegmentCalendar(List.copyOf(rooms));
+                calendars.put(segment, calendar);
+                for (int position = 0; position < rooms.size(); position++) {
+                    slotsByRoom.put(rooms.get(position), new RoomSlot(calendar, position));
+                }
+            });
+        }
+
+        private RoomNights room(int roomNumber) {
+            return occupancy.computeIfAbsent(roomNumber, room -> new RoomNights());
+        }
+    }
+
+    /**
+     * Taken nights of one room, plus the night ranges held on this instance whose reservation is not
+     * stored yet and the last range the database confirmed booked. The version changes whenever nights
+     * are taken. Guarded by its own monitor.
+     */
+    private static final class RoomNights {
+
+        private final BitSet nights = new BitSet();
+        private final List<int[]> pending = new ArrayList<>(1);
+        private long version;
+        private int bookedFrom;
+        private int bookedTo;
+        private long bookedVersion = -1;
+        private long bookedAtNanos;
+
+        private boolean isFree(int from, int to) {
+            int next = nights.nextSetBit(from);
+            return next < 0 || next >= to;
+        }
+
+        private boolean pendingOverlaps(int from, int to) {
+            for (int[] range : pending) {
+                if (range[0] < to && range[1] > from) return true;
+            }
+            return false;
+        }
+
+        private void hold(int from, int to) {
+            set(from, to);
+            pending.add(new int[]{from, to});
+        }
+
+        private void set(int from, int to) {
+            nights.set(from, to);
+            version++;
+        }
+
+        private void clear(int from, int to) {
+            nights.clear(from, to);
+            bookedVersion = -1;
+        }
+
+        // A booking inside [bookedFrom, bookedTo) also overlaps any stay that covers that range.
+        private boolean knownBooked(int from, int to, long now) {
+            return bookedVersion == version && from <= bookedFrom && bookedTo <= to
+                    && now - bookedAtNanos < BOOKED_ANSWER_TTL_NANOS;
+        }
+
+        private void rememberBooked(int from, int to, long seenVersion, long now) {
+            if (seenVersion != version) return;
+            bookedFrom = from;
+            bookedTo = to;
+            bookedVersion = seenVersion;
+            bookedAtNanos = now;
+        }
+
+        private void removePending(int from, int to) {
+            pending.removeIf(range -> range[0] == from && range[1] == to);
+        }
+    }
+
+    /**
+     * Taken rooms of one segment, one bit set per night indexed like the room bit sets.
+     * Guarded by its own monitor.
+     */
+    private static final class SegmentCalendar {
+
+        private final List<Integer> rooms;
+        private final List<BitSet> takenByNight = new ArrayList<>();
+
+        private SegmentCalendar(List<Integer> rooms) {
+            this.rooms = rooms;
+        }
+
+        private BitSet takenDuring(int from, int to) {
+            BitSet taken = new BitSet(rooms.size());
+            for (int night = from; night < Math.min(to, takenByNight.size()); night++) {
+                taken.or(takenByNight.get(night));
+            }
+            return taken;
+        }
+
+        private void mark(int position, int from, int to, boolean taken) {
+            for (int night = from; night < to; night++) {
+                if (!taken && night >= takenByNight.size()) return;
+                while (takenByNight.size() <= night) takenByNight.add(new BitSet(rooms.size()));
+                takenByNight.get(night).set(position, taken);
+            }
+        }
+    }
+}
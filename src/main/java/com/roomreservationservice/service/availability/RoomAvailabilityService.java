@@ -0,0 +1,42 @@
+package com.roomreservationservice.service.availability;
+
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.dto.RoomAvailabilityResponse;
+import com.roomreservationservice.enums.RoomSegment;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Answers availability searches, so front-ends can find a free room before booking instead of
+ * probing with reservation requests. The in-memory occupancy calendar only knows this instance's
+ * bookings and holds, so the rooms of the segment are checked against the database in one query
+ * before they are reported free. The answer is a snapshot: a room reported free can still be booked
+ * by someone else before the guest books it, and the booking is then refused with 409.
+ */
+@Service
+public class RoomAvailabilityService {
+
+    private final HotelProperties hotelProperties;
+    private final RoomAvailabilityIndex availabilityIndex;
+
+    public RoomAvailabilityService(HotelProperties hotelProperties, RoomAvailabilityIndex availabilityIndex) {
+        this.hotelProperties = hotelProperties;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    public RoomAvailabilityResponse findAvailableRooms(String propertyId, RoomSegment roomSegment,
+                                                       LocalDate startDate, LocalDate endDate) {
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date.");
+        }
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Start date cannot be in the past.");
+        }
+
+        List<Integer> availableRooms =
+                availabilityIndex.findAvailableRooms(propertyId, hotelProperties.roomsOf(propertyId, roomSegment), startDate, endDate);
+        return new RoomAvailabilityResponse(propertyId, roomSegment, startDate, endDate, availableRooms);
+    }
+}
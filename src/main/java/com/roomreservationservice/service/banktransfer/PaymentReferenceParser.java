@@ -0,0 +1,54 @@
+package com.roomreservationservice.service.banktransfer;
+
+/**
+ * Extracts the reservation reference from a bank transfer transaction description such as
+ * {@code "1401541457 P4145478"}. The reference is the first whitespace-separated token made of a
+ * {@code P} followed by digits; it may appear anywhere in the description and the tokens may be
+ * separated by any amount of whitespace.
+ * <p>
+ * Settlement batches run this for every event, so the description is scanned once in place:
+ * no regex, no token array and no substrings are allocated.
+ */
+public final class PaymentReferenceParser {
+
+    public static final long NO_REFERENCE = -1;
+
+    private static final char REFERENCE_PREFIX = 'P';
+    // 18 digits always fit in a long, so the accumulation below cannot overflow.
+    private static final int MAX_DIGITS = 18;
+
+    private PaymentReferenceParser() {
+    }
+
+    /**
+     * @return the reservation id, or {@link #NO_REFERENCE} when the description holds no valid reference
+     */
+    public static long parseReservationId(CharSequence description) {
+        if (description == null) return NO_REFERENCE;
+
+        int length = description.length();
+        int position = 0;
+        while (position < length) {
+            while (position < length && Character.isWhitespace(description.charAt(position))) position++;
+            int tokenStart = position;
+            while (position < length && !Character.isWhitespace(description.charAt(position))) position++;
+
+            long reservationId = parseToken(description, tokenStart, position);
+            if (reservationId != NO_REFERENCE) return reservationId;
+        }
+        return NO_REFERENCE;
+    }
+
+    private static long parseToken(CharSequence description, int start, int end) {
+        int digits = end - start - 1;
+        if (digits < 1 || digits > MAX_DIGITS || description.charAt(start) != REFERENCE_PREFIX) return NO_REFERENCE;
+
+        long value = 0;
+        for (int i = start + 1; i < end; i++) {
+            char c = description.charAt(i);
+            if (c < '0' || c > '9') return NO_REFERENCE;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
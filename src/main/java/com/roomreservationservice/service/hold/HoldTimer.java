@@ -0,0 +1,100 @@
+package com.roomreservationservice.service.hold;
+
+import com.roomreservationservice.config.HoldProperties;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.projection.HoldDeadline;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deadlines of the room holds of unpaid reservations, kept in a {@link TimerWheel} so every hold can
+ * be cancelled at its own deadline instead of by a nightly sweep. The wheel is rebuilt from the
+ * pending reservations at startup and fed by {@code ReservationService} whenever it stores a
+ * reservation with a deadline.
+ * <p>
+ * Each shard has a wheel of its own, so expired holds come back grouped by the shard they have to be
+ * cancelled on. A hold is registered on the shard the registering thread is bound to.
+ * <p>
+ * Holds that are paid in time stay in the wheel until their deadline; cancelling them then is a no-op
+ * because the status update only matches reservations that are still {@code PENDING_PAYMENT}.
+ */
+@Slf4j
+@Component
+public class HoldTimer {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int LEVELS = 4;
+
+    private final ReservationRepository reservationRepository;
+    private final HoldProperties holdProperties;
+    private final ShardRouter shardRouter;
+    private final Map<String, TimerWheel> wheels = new HashMap<>();
+
+    public HoldTimer(ReservationRepository reservationRepository, HoldProperties holdProperties, ShardRouter shardRouter,
+                     @Value("${reservation.hold.tick-millis:1000}") long tickMillis) {
+        this.reservationRepository = reservationRepository;
+        this.holdProperties = holdProperties;
+        this.shardRouter = shardRouter;
+        long startMillis = System.currentTimeMillis();
+        shardRouter.shards().forEach(shard -> wheels.put(shard, new TimerWheel(tickMillis, WHEEL_SIZE, LEVELS, startMillis)));
+    }
+
+    @PostConstruct
+    public void recover() {
+        AtomicInteger recovered = new AtomicInteger();
+        shardRouter.forEachShard(shard -> {
+            List<HoldDeadline> deadlines = reservationRepository.findHoldDeadlines(ReservationStatus.PENDING_PAYMENT);
+            deadlines.forEach(deadline -> register(deadline.id(), deadline.holdExpiresAt()));
+            recovered.addAndGet(deadlines.size());
+        });
+        log.info("Hold timer recovered {} pending hold deadlines", recovered.get());
+    }
+
+    /**
+     * Deadline for a reservation of the given payment mode that starts waiting for payment at
+     * {@code now}, or {@code null} when holds of that mode never expire.
+     */
+    public Instant deadlineFor(PaymentMode paymentMode, Instant now) {
+        Duration duration = holdProperties.durationOf(paymentMode);
+        return duration == null ? null : now.plus(duration);
+    }
+
+    public void register(long reservationId, Instant deadline) {
+        String shard = shardRouter.currentShard();
+        synchronized (this) {
+            wheels.get(shard).schedule(reservationId, deadline.toEpochMilli());
+        }
+    }
+
+    /**
+     * Removes and returns the reservations whose hold deadline is at or before {@code now}, by shard.
+     * Shards without an expired hold are left out.
+     */
+    public synchronized Map<String, List<Long>> expireDue(Instant now) {
+        Map<String, List<Long>> expired = new LinkedHashMap<>();
+        wheels.forEach((shard, wheel) -> {
+            List<Long> ids = wheel.advanceTo(now.toEpochMilli()).stream()
+                    .map(TimerWheel.Timer::id)
+                    .toList();
+            if (!ids.isEmpty()) expired.put(shard, ids);
+        });
+        return expired;
+    }
+
+    public synchronized int pending() {
+        return wheels.values().stream().mapToInt(TimerWheel::size).sum();
+    }
+}
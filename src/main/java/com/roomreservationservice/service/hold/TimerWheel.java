@@ -0,0 +1,122 @@
+package com.roomreservationservice.service.hold;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel in the style of Varghese and Lauck. Level 0 has one bucket per tick,
+ * every level above it covers {@code wheelSize} buckets of the level below, so scheduling and
+ * expiring a timer cost O(1) regardless of how many are pending. A timer is cascaded down one level
+ * each time its bucket comes round, until it fires from level 0 on the tick of its deadline. Timers
+ * further out than the top level can reach wait in an overflow list that is re-inserted whenever the
+ * top level wraps.
+ * <p>
+ * Not thread-safe; {@link HoldTimer} guards it.
+ */
+public final class TimerWheel {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final List<Timer>[][] levels;
+    private final List<Timer> overflow = new ArrayList<>();
+    private final List<Timer> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        if (Integer.bitCount(wheelSize) != 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        if (levelCount < 1 || Integer.numberOfTrailingZeros(wheelSize) * levelCount > 62) {
+            throw new IllegalArgumentException("levelCount out of range: " + levelCount);
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = new List[levelCount][wheelSize];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules {@code id} to fire once the wheel is advanced to or past {@code deadlineMillis}.
+     * Deadlines that have already passed fire on the next advance.
+     */
+    public void schedule(long id, long deadlineMillis) {
+        insert(new Timer(id, deadlineMillis, Math.ceilDiv(deadlineMillis, tickMillis)));
+        size++;
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis} and returns the timers that fired, in deadline order
+     * within each tick. Moving backwards is a no-op.
+     */
+    public List<Timer> advanceTo(long nowMillis) {
+        List<Timer> fired = new ArrayList<>(due);
+        due.clear();
+
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick && size > fired.size()) {
+            currentTick++;
+            for (int level = levels.length - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (level * bits)) - 1)) == 0) cascade(level);
+            }
+            if ((currentTick & ((1L << (levels.length * bits)) - 1)) == 0) reinsertOverflow();
+
+            List<Timer> bucket = take(0, (int) (currentTick & mask));
+            if (bucket != null) fired.addAll(bucket);
+            fired.addAll(due);
+            due.clear();
+        }
+        // Nothing left to fire before the target, so the remaining ticks can be skipped in one step.
+        if (currentTick < targetTick && size == fired.size()) currentTick = targetTick;
+
+        size -= fired.size();
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void insert(Timer timer) {
+        long delta = timer.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            due.add(timer);
+            return;
+        }
+        for (int level = 0; level < levels.length; level++) {
+            if (delta < 1L << ((level + 1) * bits)) {
+                int slot = (int) ((timer.deadlineTick() >>> (level * bits)) & mask);
+                List<Timer> bucket = levels[level][slot];
+                if (bucket == null) levels[level][slot] = bucket = new ArrayList<>();
+                bucket.add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private void cascade(int level) {
+        List<Timer> bucket = take(level, (int) ((currentTick >>> (level * bits)) & mask));
+        if (bucket != null) bucket.forEach(this::insert);
+    }
+
+    private void reinsertOverflow() {
+        if (overflow.isEmpty()) return;
+        List<Timer> waiting = new ArrayList<>(overflow);
+        overflow.clear();
+        waiting.forEach(this::insert);
+    }
+
+    private List<Timer> take(int level, int slot) {
+        List<Timer> bucket = levels[level][slot];
+        levels[level][slot] = null;
+        return bucket;
+    }
+
+    public record Timer(long id, long deadlineMillis, long deadlineTick) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.roomreservationservice.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.exception.AlreadyExistsException;
+import com.roomreservationservice.model.IdempotencyRecord;
+import com.roomreservationservice.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Answers retried reservation requests that carry the same {@code Idempotency-Key} with the original
+ * response, without touching payment or the database. Completed responses live in a bounded in-memory
+ * cache that evicts after the configured TTL; with {@code reservation.idempotency.persistent=true}
+ * they are also written to {@code idempotency_records} so retries survive restarts and reach other instances.
+ * <p>
+ * A retry that arrives while the original request is still running waits for its outcome instead of
+ * booking twice. Failed requests are not remembered, so they can be retried with the same key.
+ * <p>
+ * In persistent mode the key is claimed with an in-progress record before the request runs, so two
+ * instances receiving the same key at once cannot both book. The one that loses the claim replays the
+ * stored response, or answers {@code 409 CONFLICT} while the original request is still running.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Cache<String, InFlight> responses;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final boolean persistent;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              @Value("${reservation.idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${reservation.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${reservation.idempotency.in-progress-timeout-seconds:60}") long inProgressTimeoutSeconds,
+                              @Value("${reservation.idempotency.persistent:false}") boolean persistent) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.inProgressTimeout = Duration.ofSeconds(inProgressTimeoutSeconds);
+        this.persistent = persistent;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public ReservationResponse execute(String idempotencyKey, ReservationRequest request,
+                                       Supplier<ReservationResponse> operation) {
+        String fingerprint = fingerprint(request);
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight existing = responses.asMap().putIfAbsent(idempotencyKey, mine);
+        if (existing != null) return replay(idempotencyKey, fingerprint, existing);
+
+        try {
+            ReservationResponse response = persistent
+                    ? executeOnce(idempotencyKey, fingerprint, operation)
+                    : operation.get();
+            mine.response().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            responses.asMap().remove(idempotencyKey, mine);
+            mine.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.idempotency.cleanup-interval-millis:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        if (!persistent) return;
+
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+        if (deleted > 0) log.info("Purged {} expired idempotency records", deleted);
+    }
+
+    private ReservationResponse replay(String idempotencyKey, String fingerprint, InFlight existing) {
+        assertSameRequest(idempotencyKey, fingerprint, existing.fingerprint());
+        try {
+            return existing.response().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    // Runs the operation only if this instance claims the key; otherwise the key's record is replayed.
+    private ReservationResponse executeOnce(String idempotencyKey, String fingerprint,
+                                            Supplier<ReservationResponse> operation) {
+        Instant now = Instant.now();
+        if (idempotencyRecordRepository.tryClaim(idempotencyKey, fingerprint, now,
+                now.minus(ttl), now.minus(inProgressTimeout)) == 0) {
+            return replayPersisted(idempotencyKey, fingerprint);
+        }
+
+        ReservationResponse response;
+        try {
+            response = operation.get();
+        } catch (RuntimeException ex) {
+            releaseClaim(idempotencyKey);
+            throw ex;
+        }
+        try {
+            idempotencyRecordRepository.complete(idempotencyKey, response.reservationId(), response.reservationStatus(),
+                    response.roomNumber());
+        } catch (RuntimeException ex) {
+            // The reservation is already booked; the claim still blocks other instances until it is abandoned.
+            log.warn("Could not persist idempotency record for key {}", idempotencyKey, ex);
+        }
+        return response;
+    }
+
+    private ReservationResponse replayPersisted(String idempotencyKey, String fingerprint) {
+        IdempotencyRecord idempotencyRecord = idempotencyRecordRepository.findById(idempotencyKey).orElse(null);
+        if (idempotencyRecord != null) {
+            assertSameRequest(idempotencyKey, fingerprint, idempotencyRecord.getRequestFingerprint());
+        }
+        if (idempotencyRecord == null || idempotencyRecord.getReservationStatus() == null) {
+            throw new AlreadyExistsException("A request with idempotency key " + idempotencyKey +
+                    " is still being processed.");
+        }
+        return new ReservationResponse(idempotencyRecord.getReservationId(), idempotencyRecord.getReservationStatus(),
+                idempotencyRecord.getRoomNumber());
+    }
+
+    // A failed request is not remembered, so the key can be retried right away.
+    private void releaseClaim(String idempotencyKey) {
+        try {
+            idempotencyRecordRepository.deleteInProgress(idempotencyKey);
+        } catch (RuntimeException ex) {
+            log.warn("Could not release idempotency key {}, it can be retried once its claim is abandoned",
+                    idempotencyKey, ex);
+        }
+    }
+
+    private static void assertSameRequest(String idempotencyKey, String fingerprint, String expectedFingerprint) {
+        if (!fingerprint.equals(expectedFingerprint)) {
+            throw new AlreadyExistsException("Idempotency key " + idempotencyKey +
+                    " was already used for a different request.");
+        }
+    }
+
+    // Record toString() only depends on field values, so the fingerprint is stable across instances.
+    private static String fingerprint(ReservationRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<ReservationResponse> response) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.roomreservationservice.service.lease;
+
+import com.roomreservationservice.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Database-backed leases for scheduled jobs that must run once across all replicas, in the spirit of
+ * ShedLock. Unlike an advisory lock a lease does not pin a connection while the job runs, and it
+ * expires on its own when the holder dies, so a crashed instance never blocks the next run.
+ * <p>
+ * A deployment of a single instance can switch leases off with
+ * {@code reservation.scheduler.lease.enabled=false}; every lease is then granted without touching
+ * {@code scheduler_leases}, whose PostgreSQL upsert databases such as H2 do not run.
+ */
+@Slf4j
+@Service
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final boolean enabled;
+    private final String owner;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository schedulerLeaseRepository,
+                                 @Value("${reservation.scheduler.lease.enabled:true}") boolean enabled) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.enabled = enabled;
+        this.owner = hostName() + "/" + UUID.randomUUID();
+        if (!enabled) log.warn("Scheduler leases are off; run a single instance only");
+    }
+
+    /**
+     * @param lockAtMostFor how long the lease stays taken if this instance never releases it
+     * @return {@code true} when this instance now holds the lease
+     */
+    @Transactional
+    public boolean tryAcquire(String leaseName, Duration lockAtMostFor) {
+        if (!enabled) return true;
+        boolean acquired = schedulerLeaseRepository.tryAcquire(leaseName, owner, lockAtMostFor.toSeconds()) == 1;
+        if (!acquired) log.debug("Lease {} is held by another instance", leaseName);
+        return acquired;
+    }
+
+    /**
+     * @param lockAtLeastFor minimum time, counted from acquisition, before another instance can take the lease
+     */
+    @Transactional
+    public void release(String leaseName, Duration lockAtLeastFor) {
+        if (!enabled) return;
+        schedulerLeaseRepository.release(leaseName, owner, lockAtLeastFor.toSeconds());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            return "unknown-host";
+        }
+    }
+}
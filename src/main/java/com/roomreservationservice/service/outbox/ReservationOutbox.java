@@ -0,0 +1,76 @@
+package com.roomreservationservice.service.outbox;
+
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.infrastructure.event.ReservationStatusChangedEvent;
+import com.roomreservationservice.model.OutboxEvent;
+import com.roomreservationservice.repository.OutboxEventRepository;
+import com.roomreservationservice.repository.projection.ReservationVersion;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox for reservation status changes. Events are written in the transaction that
+ * changes the status, so they are stored if and only if the change commits, and are published to
+ * Kafka afterwards by {@code OutboxRelay}.
+ * <p>
+ * Every event carries the reservation's version after the change. Outbox ids are drawn before the
+ * transaction commits, so they do not tell which of two changes of a reservation came first; the
+ * version does.
+ */
+@Component
+public class ReservationOutbox {
+
+    public static final String STATUS_CHANGED = "ReservationStatusChanged";
+
+    // Version of a reservation as inserted, both by Hibernate and by the R2DBC booking path.
+    public static final long INITIAL_VERSION = 0;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JsonMapper jsonMapper;
+
+    public ReservationOutbox(OutboxEventRepository outboxEventRepository, JsonMapper jsonMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(long reservationId, long version, ReservationStatus previousStatus,
+                                   ReservationStatus status) {
+        outboxEventRepository.save(toOutboxEvent(reservationId, version, previousStatus, status, Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(List<ReservationVersion> reservations, ReservationStatus previousStatus,
+                                    ReservationStatus status) {
+        if (reservations.isEmpty()) return;
+
+        Instant now = Instant.now();
+        List<OutboxEvent> outboxEvents = new ArrayList<>(reservations.size());
+        reservations.forEach(reservation -> outboxEvents.add(
+                toOutboxEvent(reservation.id(), reservation.version(), previousStatus, status, now)));
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    /**
+     * Builds the outbox row without storing it, for callers that write it through their own
+     * connection, such as the R2DBC booking path.
+     */
+    public OutboxEvent toOutboxEvent(long reservationId, long version, ReservationStatus previousStatus,
+                                     ReservationStatus status, Instant occurredAt) {
+        ReservationStatusChangedEvent event =
+                new ReservationStatusChangedEvent(reservationId, version, previousStatus, status, occurredAt);
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setReservationId(reservationId);
+        outboxEvent.setEventType(STATUS_CHANGED);
+        outboxEvent.setPayload(jsonMapper.writeValueAsString(event));
+        outboxEvent.setCreatedAt(occurredAt);
+        return outboxEvent;
+    }
+}
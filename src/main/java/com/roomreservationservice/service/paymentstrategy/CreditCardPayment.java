@@ -3,25 +3,57 @@ package com.roomreservationservice.service.paymentstrategy;
 import com.roomreservationservice.enums.ReservationStatus;
 import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
 import com.roomreservationservice.model.Reservation;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+/**
+ * Validates credit card payments with the payment provider. With
+ * {@code reservation.credit-card.async.enabled=true} the booking does not wait for the provider:
+ * the reservation is stored as {@code PENDING_PAYMENT} and {@code CreditCardConfirmationScheduler}
+ * confirms or cancels it afterwards.
+ */
 @Service
 public class CreditCardPayment implements PaymentStrategy {
 
     private final CreditCardPaymentClient client;
+    private final boolean asyncConfirmation;
 
-    public CreditCardPayment(CreditCardPaymentClient client) {
+    public CreditCardPayment(CreditCardPaymentClient client,
+                             @Value("${reservation.credit-card.async.enabled:false}") boolean asyncConfirmation) {
         this.client = client;
+        this.asyncConfirmation = asyncConfirmation;
     }
 
     @Override
     public ReservationStatus processPayment(Reservation reservation) {
+        requirePaymentReference(reservation);
+        if (asyncConfirmation) return ReservationStatus.PENDING_PAYMENT;
+
+        boolean success = client.validatePayment(reservation.getPaymentReference());
+        return toStatus(success);
+    }
+
+    @Override
+    public Mono<ReservationStatus> processPaymentAsync(Reservation reservation) {
+        return Mono.defer(() -> {
+            requirePaymentReference(reservation);
+            if (asyncConfirmation) return Mono.just(ReservationStatus.PENDING_PAYMENT);
+
+            return client.validatePaymentAsync(reservation.getPaymentReference())
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("No response from credit card payment service")))
+                    .map(CreditCardPayment::toStatus);
+        });
+    }
+
+    private static void requirePaymentReference(Reservation reservation) {
         if (reservation.getPaymentReference() == null || reservation.getPaymentReference().isBlank()) {
             throw new IllegalArgumentException("Payment reference is required for Credit Card payments.");
         }
+    }
 
-        boolean success = client.validatePayment(reservation.getPaymentReference());
+    private static ReservationStatus toStatus(boolean success) {
         if (success) return ReservationStatus.CONFIRMED;
         else throw new IllegalStateException("Credit Card payment failed.");
     }
-}
\ No newline at end of file
+}
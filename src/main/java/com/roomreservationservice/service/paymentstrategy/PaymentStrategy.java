@@ -2,7 +2,16 @@ package com.roomreservationservice.service.paymentstrategy;
 
 import com.roomreservationservice.enums.ReservationStatus;
 import com.roomreservationservice.model.Reservation;
+import reactor.core.publisher.Mono;
 
 public interface PaymentStrategy {
     ReservationStatus processPayment(Reservation reservation);
-}
\ No newline at end of file
+
+    /**
+     * Non-blocking variant used by the reactive booking path. Strategies that never leave the
+     * process can rely on the default; strategies that call a remote provider must override it.
+     */
+    default Mono<ReservationStatus> processPaymentAsync(Reservation reservation) {
+        return Mono.fromSupplier(() -> processPayment(reservation));
+    }
+}
@@ -0,0 +1,121 @@
+package com.roomreservationservice.service.reactive;
+
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.exception.RoomAlreadyBookedException;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.model.Reservation;
+import com.roomreservationservice.repository.reactive.ReactiveReservationRepository;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.outbox.ReservationOutbox;
+import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.R2dbcException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link ReservationService#confirmReservation}. Validation and the room
+ * hold are shared with the servlet path; the hold may re-check a taken room over JDBC, so it runs on the
+ * bounded elastic scheduler. Payment goes through {@code PaymentStrategy#processPaymentAsync} and the
+ * reservation and its outbox event are written over R2DBC in one transaction, so no thread waits on the
+ * payment provider or on the insert.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveReservationService {
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private final ReservationService reservationService;
+    private final PaymentStrategyFactory paymentStrategyFactory;
+    private final ReactiveReservationRepository reactiveReservationRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ReservationOutbox reservationOutbox;
+    private final ReservationReadModel readModel;
+    private final ReservationMetrics metrics;
+
+    public ReactiveReservationService(ReservationService reservationService, PaymentStrategyFactory paymentStrategyFactory,
+                                      ReactiveReservationRepository reactiveReservationRepository,
+                                      TransactionalOperator transactionalOperator, ReservationOutbox reservationOutbox,
+                                      ReservationReadModel readModel, ReservationMetrics metrics) {
+        this.reservationService = reservationService;
+        this.paymentStrategyFactory = paymentStrategyFactory;
+        this.reactiveReservationRepository = reactiveReservationRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.reservationOutbox = reservationOutbox;
+        this.readModel = readModel;
+        this.metrics = metrics;
+    }
+
+    public Mono<ReservationResponse> confirmReservation(ReservationRequest reservationRequest) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = metrics.startTimer();
+            return Mono.defer(() -> doConfirmReservation(reservationRequest))
+                    .doOnSuccess(response -> metrics.recordConfirmation(sample, reservationRequest.paymentMode(),
+                            reservationRequest.roomSegment(), response.reservationStatus(), null))
+                    .doOnError(ex -> metrics.recordConfirmation(sample, reservationRequest.paymentMode(),
+                            reservationRequest.roomSegment(), null, ex));
+        });
+    }
+
+    private Mono<ReservationResponse> doConfirmReservation(ReservationRequest reservationRequest) {
+        return Mono.fromCallable(() -> reservationService.holdRoom(reservationRequest))
+                .subscribeOn(Schedulers.boundedElastic())
+                // A hold taken after the request was cancelled is never paid for.
+                .doOnDiscard(Reservation.class, reservationService::releaseHold)
+                .flatMap(this::payAndStore);
+    }
+
+    private Mono<ReservationResponse> payAndStore(Reservation reservation) {
+        // A cancelled request gives its hold back; should its insert still commit, the exclusion
+        // constraint keeps rejecting overlapping bookings until the index is warmed up again.
+        return paymentStrategyFactory.getStrategy(reservation.getPaymentMode())
+                .processPaymentAsync(reservation)
+                .flatMap(status -> {
+                    reservationService.setPaymentStatus(reservation, status);
+                    return store(reservation);
+                })
+                .onErrorMap(DataIntegrityViolationException.class, ex -> isRoomOverlap(ex)
+                        ? new RoomAlreadyBookedException("Room " + reservation.getRoomNumber() +
+                        " is already booked in the selected period.")
+                        : ex)
+                .doOnError(ex -> reservationService.releaseHold(reservation))
+                .doOnCancel(() -> reservationService.releaseHold(reservation))
+                .map(id -> {
+                    reservation.setId(id);
+                    reservationService.bindHold(reservation);
+                    readModel.reservationsCreated(List.of(reservation));
+                    return new ReservationResponse(id, reservation.getStatus(), reservation.getRoomNumber());
+                });
+    }
+
+    private Mono<Long> store(Reservation reservation) {
+        return reactiveReservationRepository.insert(reservation)
+                .flatMap(id -> reactiveReservationRepository.insertOutboxEvent(
+                                reservationOutbox.toOutboxEvent(id, ReservationOutbox.INITIAL_VERSION, null,
+                                        reservation.getStatus(), Instant.now()))
+                        .thenReturn(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    // The availability index only sees this instance; the exclusion constraint catches bookings made elsewhere.
+    private static boolean isRoomOverlap(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException r2dbcException && EXCLUSION_VIOLATION.equals(r2dbcException.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
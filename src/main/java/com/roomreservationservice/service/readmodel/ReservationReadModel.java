@@ -0,0 +1,185 @@
+package com.roomreservationservice.service.readmodel;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roomreservationservice.exception.NotFoundException;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.model.Reservation;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.projection.ReservationDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached read side for reservation lookups, so front desk and ops queries stop hitting the table the
+ * booking path writes to.
+ * <p>
+ * Reservation details are cached per id. Lookups by customer or by room only cache the matching ids
+ * and resolve them through the id cache, which means a status change only has to evict the changed
+ * ids; new reservations evict the customer and room lookups they would appear in. Cached room lookups
+ * are indexed by room, so a new reservation only looks at the lookups of its own room. Evictions run
+ * after the writing transaction commits, and every entry also expires after the configured TTL as a
+ * bound on staleness for changes made by other instances.
+ * <p>
+ * Customer and room lookups are scoped to a property and run on its shard. Details missing from the
+ * cache are loaded from the shard of each id's block, and only ids not found there from the others.
+ */
+@Component
+public class ReservationReadModel {
+
+    private final ReservationRepository reservationRepository;
+    private final ShardRouter shardRouter;
+    private final Cache<Long, ReservationDetails> reservationsById;
+    private final Cache<Customer, List<Long>> idsByCustomer;
+    private final Cache<RoomRange, List<Long>> idsByRoom;
+    private final Map<Room, Set<RoomRange>> rangesByRoom = new ConcurrentHashMap<>();
+
+    public ReservationReadModel(ReservationRepository reservationRepository, ShardRouter shardRouter,
+                                @Value("${reservation.read-model.max-entries:100000}") long maxEntries,
+                                @Value("${reservation.read-model.ttl-seconds:300}") long ttlSeconds) {
+        this.reservationRepository = reservationRepository;
+        this.shardRouter = shardRouter;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.reservationsById = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+        this.idsByCustomer = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+        this.idsByRoom = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl)
+                .<RoomRange, List<Long>>evictionListener((range, ids, cause) -> unindex(range))
+                .build();
+    }
+
+    public ReservationDetails findById(long reservationId) {
+        ReservationDetails details = resolve(List.of(reservationId)).stream().findFirst().orElse(null);
+        if (details == null) throw new NotFoundException("Reservation " + reservationId + " was not found.");
+        return details;
+    }
+
+    public List<ReservationDetails> findByCustomer(String propertyId, String customerName) {
+        return resolve(idsByCustomer.get(new Customer(propertyId, customerName),
+                customer -> shardRouter.onProperty(propertyId, () ->
+                        reservationRepository.findIdsByPropertyIdAndCustomerName(propertyId, customerName))));
+    }
+
+    public List<ReservationDetails> findByRoom(String propertyId, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date.");
+        }
+        return resolve(idsByRoom.get(new RoomRange(propertyId, roomNumber, startDate, endDate),
+                range -> {
+                    rangesByRoom.computeIfAbsent(range.room(), room -> ConcurrentHashMap.newKeySet()).add(range);
+                    return shardRouter.onProperty(propertyId, () ->
+                            reservationRepository.findIdsByPropertyIdAndRoomNumberOverlapping(
+                                    propertyId, roomNumber, startDate, endDate));
+                }));
+    }
+
+    /**
+     * Evicts the customer and room lookups the new reservations belong to once the current transaction commits.
+     */
+    public void reservationsCreated(Collection<Reservation> reservations) {
+        List<Reservation> created = List.copyOf(reservations);
+        afterCommit(() -> created.forEach(reservation -> {
+            idsByCustomer.invalidate(new Customer(reservation.getPropertyId(), reservation.getCustomerName()));
+            Set<RoomRange> ranges = rangesByRoom.get(new Room(reservation.getPropertyId(), reservation.getRoomNumber()));
+            if (ranges == null) return;
+            ranges.removeIf(range -> {
+                if (!range.overlaps(reservation)) return false;
+                idsByRoom.invalidate(range);
+                return true;
+            });
+        }));
+    }
+
+    /**
+     * Evicts the cached details of the given reservations once the current transaction commits.
+     */
+    public void statusChanged(Collection<Long> reservationIds) {
+        if (reservationIds.isEmpty()) return;
+
+        List<Long> changed = List.copyOf(reservationIds);
+        afterCommit(() -> reservationsById.invalidateAll(changed));
+    }
+
+    // Keeps the order of the id lookup; ids whose row disappeared in the meantime are skipped.
+    private List<ReservationDetails> resolve(List<Long> ids) {
+        Map<Long, ReservationDetails> detailsById = reservationsById.getAll(ids, this::load);
+
+        List<ReservationDetails> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ReservationDetails details = detailsById.get(id);
+            if (details != null) result.add(details);
+        }
+        return result;
+    }
+
+    private Map<Long, ReservationDetails> load(Set<? extends Long> ids) {
+        Map<Long, ReservationDetails> loaded = new HashMap<>();
+        Set<Long> missing = new HashSet<>(ids);
+        for (int round = 0; round < shardRouter.shards().size() && !missing.isEmpty(); round++) {
+            Map<String, List<Long>> idsByShard = new HashMap<>();
+            for (Long id : missing) {
+                idsByShard.computeIfAbsent(shardRouter.shardsForId(id).get(round), shard -> new ArrayList<>()).add(id);
+            }
+            idsByShard.forEach((shard, shardIds) ->
+                    shardRouter.onShard(shard, () -> reservationRepository.findDetailsByIdIn(shardIds))
+                            .forEach(details -> {
+                                loaded.put(details.id(), details);
+                                missing.remove(details.id());
+                            }));
+        }
+        return loaded;
+    }
+
+    // Runs inside the cache's atomic removal of an evicted or expired lookup, so it cannot race a reload of the same range.
+    private void unindex(RoomRange range) {
+        rangesByRoom.computeIfPresent(range.room(), (room, ranges) -> {
+            ranges.remove(range);
+            return ranges.isEmpty() ? null : ranges;
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private record Customer(String propertyId, String customerName) {
+    }
+
+    private record Room(String propertyId, int roomNumber) {
+    }
+
+    private record RoomRange(String propertyId, int roomNumber, LocalDate startDate, LocalDate endDate) {
+
+        Room room() {
+            return new Room(propertyId, roomNumber);
+        }
+
+        boolean overlaps(Reservation reservation) {
+            return propertyId.equals(reservation.getPropertyId())
+                    && roomNumber == reservation.getRoomNumber()
+                    && startDate.isBefore(reservation.getEndDate())
+                    && endDate.isAfter(reservation.getStartDate());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Deadline of the room hold of an unpaid reservation; NULL once nothing can expire it.
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS hold_expires_at TIMESTAMP WITH TIME ZONE;
+
+-- Pending reservations stored before deadlines existed get the default hold of their payment mode
+-- (reservation.hold.durations), counted from the migration, instead of being cancelled the moment
+-- the hold timer starts.
+UPDATE reservations
+SET hold_expires_at = now() + CASE payment_mode
+                                  WHEN 'BANK_TRANSFER' THEN INTERVAL '48 hours'
+                                  WHEN 'CREDIT_CARD' THEN INTERVAL '15 minutes'
+    END
+WHERE status = 'PENDING_PAYMENT'
+  AND payment_mode IN ('BANK_TRANSFER', 'CREDIT_CARD')
+  AND hold_expires_at IS NULL;
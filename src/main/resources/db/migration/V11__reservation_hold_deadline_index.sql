@@ -0,0 +1,7 @@
+-- Built concurrently so the migration does not block bookings on large tables.
+-- Flyway runs this script outside a transaction because every statement is non-transactional.
+
+-- findHoldDeadlines / findExpiredHoldIdsAfter: only unpaid reservations carry a live deadline.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_hold_expires_at_pending
+    ON reservations (hold_expires_at)
+    WHERE status = 'PENDING_PAYMENT';
@@ -0,0 +1,20 @@
+-- Property (hotel) a reservation belongs to. Rows written so far belong to the single hotel served
+-- until now. A constant default is stored in the catalog only, so existing rows are not rewritten.
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS property_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+-- Room numbers repeat across properties, so double booking is only ruled out within a property.
+-- Rebuilding the constraint holds an exclusive lock on the table while its index is built.
+ALTER TABLE reservations
+    DROP CONSTRAINT IF EXISTS reservations_room_no_overlap;
+
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_property_room_no_overlap
+        EXCLUDE USING gist (property_id WITH =, room_number WITH =, daterange(start_date, end_date, '[)') WITH &&)
+        WHERE (status <> 'CANCELLED');
+
+-- Hibernate's pooled optimizer is shared by all shards of a sharded deployment, so each shard hands
+-- out ids from its own block to keep reservation and outbox ids unique across shards.
+-- id_block_start is 0 without sharding, which leaves the sequences where they are.
+SELECT setval('reservations_seq', GREATEST((SELECT last_value FROM reservations_seq), ${id_block_start}));
+SELECT setval('reservation_outbox_seq', GREATEST((SELECT last_value FROM reservation_outbox_seq), ${id_block_start}));
@@ -0,0 +1,23 @@
+-- Built concurrently so the migration does not block bookings on large tables.
+-- Flyway runs this script outside a transaction because every statement is non-transactional.
+-- Every room and guest lookup is now scoped to a property, so the V3 and V7 indexes gain it as
+-- their leading column and the old ones are dropped once the replacements exist.
+
+-- existsByPropertyIdAndRoomNumberAndDateRange
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_property_room_dates_active
+    ON reservations (property_id, room_number, start_date, end_date)
+    WHERE status <> 'CANCELLED';
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_reservations_room_dates_active;
+
+-- findIdsByPropertyIdAndCustomerName
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_property_customer_start_date
+    ON reservations (property_id, customer_name, start_date);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_reservations_customer_start_date;
+
+-- findIdsByPropertyIdAndRoomNumberOverlapping
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_property_room_start_date
+    ON reservations (property_id, room_number, start_date);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_reservations_room_start_date;
@@ -0,0 +1,5 @@
+-- A key is claimed before its request runs, so a record without a reservation marks a request still
+-- in progress. Concurrent first attempts on other instances then conflict on the key instead of booking twice.
+ALTER TABLE idempotency_records
+    ALTER COLUMN reservation_id DROP NOT NULL,
+    ALTER COLUMN reservation_status DROP NOT NULL;
@@ -0,0 +1,6 @@
+-- Ids are now taken one at a time from the sequence of the shard the row is written to, so every id
+-- carries its shard's block. Blocks of 50 were cached by Hibernate's pooled optimizer for the whole
+-- application and handed to rows of whichever shard came next. The next values stay above every id
+-- handed out so far, as the pooled optimizer never went past the last fetched value.
+ALTER SEQUENCE reservations_seq INCREMENT BY 1;
+ALTER SEQUENCE reservation_outbox_seq INCREMENT BY 1;
@@ -0,0 +1,17 @@
+-- Matches the schema previously generated by ddl-auto, so existing databases are baselined without changes.
+CREATE SEQUENCE IF NOT EXISTS reservations_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS reservations
+(
+    id                BIGINT       NOT NULL PRIMARY KEY,
+    room_number       INTEGER      NOT NULL,
+    customer_name     VARCHAR(255) NOT NULL,
+    start_date        DATE         NOT NULL,
+    end_date          DATE         NOT NULL,
+    room_segment      VARCHAR(255) NOT NULL CHECK (room_segment IN ('SMALL', 'MEDIUM', 'LARGE', 'EXTRA_LARGE')),
+    payment_mode      VARCHAR(255) NOT NULL CHECK (payment_mode IN ('CASH', 'BANK_TRANSFER', 'CREDIT_CARD')),
+    status            VARCHAR(255) CHECK (status IN ('PENDING_PAYMENT', 'CONFIRMED', 'CANCELLED')),
+    payment_reference VARCHAR(255),
+    total_amount      BIGINT       NOT NULL,
+    version           BIGINT
+);
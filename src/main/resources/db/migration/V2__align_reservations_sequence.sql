@@ -0,0 +1,3 @@
+-- Rows written with the former IDENTITY column may be ahead of the pooled sequence.
+-- Hibernate's pooled optimizer hands out the block ending at the fetched value, so leave a full block of headroom.
+SELECT setval('reservations_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM reservations));
@@ -0,0 +1,52 @@
+-- The exclusion constraint of V4 cannot be added while active reservations of a room overlap, which
+-- the former check-then-insert could let through under concurrent bookings. Per room, the overlapping
+-- rows are visited confirmed first, then oldest first: a row is kept unless it overlaps a row already
+-- kept, so only rows that conflict with a kept booking are cancelled. Their ids are reported so the
+-- guests can be contacted.
+DO
+$$
+    DECLARE
+        candidate     RECORD;
+        current_room  INTEGER;
+        kept_stays    DATERANGE[];
+        stay          DATERANGE;
+        cancelled_ids BIGINT[] := '{}';
+    BEGIN
+        -- Rows that overlap no other active row are kept anyway and cannot conflict with a kept one.
+        FOR candidate IN
+            SELECT r.id, r.room_number, r.start_date, r.end_date
+            FROM reservations r
+            WHERE r.status <> 'CANCELLED'
+              AND EXISTS (SELECT 1
+                          FROM reservations other
+                          WHERE other.status <> 'CANCELLED'
+                            AND other.id <> r.id
+                            AND other.room_number = r.room_number
+                            AND other.start_date < r.end_date
+                            AND other.end_date > r.start_date)
+            ORDER BY r.room_number, r.status = 'CONFIRMED' DESC, r.id
+            LOOP
+                IF candidate.room_number IS DISTINCT FROM current_room THEN
+                    current_room := candidate.room_number;
+                    kept_stays := '{}';
+                END IF;
+
+                stay := daterange(candidate.start_date, candidate.end_date, '[)');
+                IF stay && ANY (kept_stays) THEN
+                    cancelled_ids := cancelled_ids || candidate.id;
+                ELSE
+                    kept_stays := kept_stays || stay;
+                END IF;
+            END LOOP;
+
+        IF cardinality(cancelled_ids) > 0 THEN
+            UPDATE reservations
+            SET status  = 'CANCELLED',
+                version = COALESCE(version, 0) + 1
+            WHERE id = ANY (cancelled_ids);
+
+            RAISE WARNING 'Cancelled % double-booked reservations before adding the overlap constraint: %',
+                cardinality(cancelled_ids), cancelled_ids;
+        END IF;
+    END
+$$;
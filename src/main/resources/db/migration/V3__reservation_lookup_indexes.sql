@@ -0,0 +1,18 @@
+-- Built concurrently so the migration does not block bookings on large tables.
+-- Flyway runs this script outside a transaction because every statement is non-transactional.
+
+-- existsByRoomNumberAndDateRange: equality on room, range on dates, cancelled rows never match.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_room_dates_active
+    ON reservations (room_number, start_date, end_date)
+    WHERE status <> 'CANCELLED';
+
+-- findActiveStays: availability index warm-up reads only stays that have not ended yet.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_end_date_active
+    ON reservations (end_date)
+    WHERE status <> 'CANCELLED';
+
+-- findPendingBankTransfers / findPendingBankTransferIdsAfter: payment mode and status are bound
+-- parameters, so a plain composite index is used instead of a partial one. Trailing id serves
+-- the keyset ORDER BY id.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_mode_status_id
+    ON reservations (payment_mode, status, id);
@@ -0,0 +1,8 @@
+-- Makes double booking impossible at the database level, whichever instance handles the request.
+-- Only active reservations take part; cancelled rows may overlap freely.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_room_no_overlap
+        EXCLUDE USING gist (room_number WITH =, daterange(start_date, end_date, '[)') WITH &&)
+        WHERE (status <> 'CANCELLED');
@@ -0,0 +1,11 @@
+CREATE SEQUENCE IF NOT EXISTS reservation_outbox_seq START WITH 1 INCREMENT BY 50;
+
+-- Rows are deleted once the relay has published them, so the table only holds the backlog.
+CREATE TABLE IF NOT EXISTS reservation_outbox
+(
+    id             BIGINT                   NOT NULL PRIMARY KEY,
+    reservation_id BIGINT                   NOT NULL,
+    event_type     VARCHAR(255)             NOT NULL,
+    payload        TEXT                     NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Persistent tier of the Idempotency-Key store, only written when reservation.idempotency.persistent=true.
+CREATE TABLE IF NOT EXISTS idempotency_records
+(
+    idempotency_key     VARCHAR(255)             NOT NULL PRIMARY KEY,
+    request_fingerprint VARCHAR(255)             NOT NULL,
+    reservation_id      BIGINT                   NOT NULL,
+    reservation_status  VARCHAR(255)             NOT NULL CHECK (reservation_status IN ('PENDING_PAYMENT', 'CONFIRMED', 'CANCELLED')),
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_records_created_at ON idempotency_records (created_at);
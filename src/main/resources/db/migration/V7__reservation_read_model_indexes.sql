@@ -0,0 +1,11 @@
+-- Built concurrently so the migration does not block bookings on large tables.
+-- Flyway runs this script outside a transaction because every statement is non-transactional.
+
+-- findIdsByCustomerName: front desk lookup of a guest's reservations, ordered by arrival.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_customer_start_date
+    ON reservations (customer_name, start_date);
+
+-- findIdsByRoomNumberOverlapping: a room's schedule includes cancelled stays, so the partial
+-- room/dates index from V3 cannot serve it.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservations_room_start_date
+    ON reservations (room_number, start_date);
@@ -0,0 +1,9 @@
+-- One row per scheduled job. An instance runs the job only while it holds an unexpired lease,
+-- so a job scheduled on every replica runs once cluster-wide. Times come from the database clock.
+CREATE TABLE IF NOT EXISTS scheduler_leases
+(
+    lease_name   VARCHAR(64)              NOT NULL PRIMARY KEY,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_by    VARCHAR(255)             NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Requests without a room number are allocated one, so replays must return it as well.
+ALTER TABLE idempotency_records
+    ADD COLUMN IF NOT EXISTS room_number INTEGER NOT NULL DEFAULT 0;
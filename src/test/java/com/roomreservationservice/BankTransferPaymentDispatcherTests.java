@@ -0,0 +1,122 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
+import com.roomreservationservice.infrastructure.messaging.BankTransferPaymentDispatcher;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.service.ReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BankTransferPaymentDispatcherTests {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private BankTransferPaymentDispatcher dispatcher;
+
+    private final BankTransferPaymentEvent event =
+            new BankTransferPaymentEvent("Attribute Description Test", 1L, 123, 250, "1401541457 P4145478");
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new BankTransferPaymentDispatcher(reservationService, kafkaTemplate, JsonMapper.builder().build(),
+                new ReservationMetrics(new SimpleMeterRegistry()), 4, 3, 1, "bank-transfer-payment-update.DLT");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void should_retry_batch_after_optimistic_lock_failure() {
+        Mockito.when(reservationService.handleBankTransferPayments(List.of(event)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Reservation", 4145478L))
+                .thenReturn(1);
+
+        dispatcher.dispatch(List.of(event));
+
+        Mockito.verify(reservationService, Mockito.times(2)).handleBankTransferPayments(List.of(event));
+        Mockito.verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void should_send_only_the_poison_event_to_dead_letter_topic() {
+        BankTransferPaymentEvent poison =
+                new BankTransferPaymentEvent("Attribute Description Test", 2L, 123, 250, "1401541457 P4145479");
+        Mockito.when(reservationService.handleBankTransferPayments(List.of(event, poison)))
+                .thenThrow(new DataIntegrityViolationException("reservations_total_amount_check"));
+        Mockito.when(reservationService.handleBankTransferPayment(event)).thenReturn(true);
+        Mockito.when(reservationService.handleBankTransferPayment(poison))
+                .thenThrow(new DataIntegrityViolationException("reservations_total_amount_check"));
+        Mockito.when(kafkaTemplate.send(Mockito.eq("bank-transfer-payment-update.DLT"), Mockito.eq("4145479"), Mockito.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        oneShardDispatcher().dispatch(List.of(event, poison));
+
+        Mockito.verify(reservationService).handleBankTransferPayment(event);
+        Mockito.verify(kafkaTemplate).send(Mockito.eq("bank-transfer-payment-update.DLT"), Mockito.eq("4145479"),
+                Mockito.contains("P4145479"));
+        Mockito.verifyNoMoreInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void should_rethrow_database_outage_so_the_poll_is_redelivered() {
+        Mockito.when(reservationService.handleBankTransferPayments(List.of(event)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> dispatcher.dispatch(List.of(event)));
+
+        Mockito.verify(reservationService, Mockito.never()).handleBankTransferPayment(Mockito.any());
+        Mockito.verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void should_rethrow_conflict_that_outlives_the_retries_instead_of_dead_lettering() {
+        Mockito.when(reservationService.handleBankTransferPayments(List.of(event)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Reservation", 4145478L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> dispatcher.dispatch(List.of(event)));
+
+        Mockito.verify(reservationService, Mockito.times(3)).handleBankTransferPayments(List.of(event));
+        Mockito.verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void should_keep_events_of_one_reservation_together_in_order() {
+        BankTransferPaymentEvent secondPayment =
+                new BankTransferPaymentEvent("Attribute Description Test", 2L, 123, 250, "1401541457 P4145478");
+
+        dispatcher.dispatch(List.of(event, secondPayment));
+
+        Mockito.verify(reservationService).handleBankTransferPayments(List.of(event, secondPayment));
+    }
+
+    // Puts every reservation on the same shard, so a test can mix events of several reservations in one batch.
+    private BankTransferPaymentDispatcher oneShardDispatcher() {
+        dispatcher.shutdown();
+        dispatcher = new BankTransferPaymentDispatcher(reservationService, kafkaTemplate, JsonMapper.builder().build(),
+                new ReservationMetrics(new SimpleMeterRegistry()), 1, 3, 1, "bank-transfer-payment-update.DLT");
+        return dispatcher;
+    }
+}
@@ -1,5 +1,8 @@
 package com.roomreservationservice;
 
+import com.roomreservationservice.config.HoldProperties;
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.config.ShardingProperties;
 import com.roomreservationservice.dto.ReservationRequest;
 import com.roomreservationservice.dto.ReservationResponse;
 import com.roomreservationservice.enums.PaymentMode;
@@ -7,23 +10,34 @@ import com.roomreservationservice.enums.ReservationStatus;
 import com.roomreservationservice.enums.RoomSegment;
 import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
 import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
 import com.roomreservationservice.model.Reservation;
 import com.roomreservationservice.repository.ReservationRepository;
-import com.roomreservationservice.repository.projection.ReservationSummary;
+import com.roomreservationservice.repository.projection.ReservationVersion;
 import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import com.roomreservationservice.service.hold.HoldTimer;
+import com.roomreservationservice.service.outbox.ReservationOutbox;
 import com.roomreservationservice.service.paymentstrategy.BankTransferPayment;
 import com.roomreservationservice.service.paymentstrategy.CashPayment;
 import com.roomreservationservice.service.paymentstrategy.CreditCardPayment;
 import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +51,12 @@ public class BankTransferPaymentTests {
     @Mock
     private CreditCardPaymentClient creditCardPaymentClient;
 
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private ReservationReadModel reservationReadModel;
+
     private ReservationService reservationService;
 
     @Mock
@@ -44,16 +64,25 @@ public class BankTransferPaymentTests {
 
     @BeforeEach
     void setUp() {
+        ShardRouter shardRouter = ShardRouter.unsharded(ShardingProperties.UNSHARDED);
         PaymentStrategyFactory factory =
                 new PaymentStrategyFactory(List.of(
                         new CashPayment(),
-                        new CreditCardPayment(creditCardPaymentClient),
+                        new CreditCardPayment(creditCardPaymentClient, false),
                         new BankTransferPayment()
                 ));
 
         reservationService = new ReservationService(
                 reservationRepository,
-                factory
+                factory,
+                new RoomAvailabilityIndex(reservationRepository, new HotelProperties(Map.of(), Map.of()), shardRouter),
+                TransactionOperations.withoutTransaction(),
+                new ReservationMetrics(new SimpleMeterRegistry()),
+                reservationOutbox,
+                reservationReadModel,
+                new HoldTimer(reservationRepository,
+                        new HoldProperties(Map.of(PaymentMode.BANK_TRANSFER, Duration.ofHours(48))), shardRouter, 1000),
+                shardRouter
         );
 
     }
@@ -63,6 +92,7 @@ public class BankTransferPaymentTests {
 
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -77,6 +107,20 @@ public class BankTransferPaymentTests {
         assertEquals(ReservationStatus.PENDING_PAYMENT, response.reservationStatus());
     }
 
+    @Test
+    void should_give_pending_bank_transfer_the_hold_deadline_of_its_payment_mode() {
+        ReservationRequest request = new ReservationRequest(null, 1, "Berkan", LocalDate.now(), LocalDate.now().plusDays(2),
+                RoomSegment.EXTRA_LARGE, PaymentMode.BANK_TRANSFER, null, 100);
+        Instant before = Instant.now();
+
+        reservationService.confirmReservation(request);
+
+        Mockito.verify(reservationRepository).save(Mockito.argThat(reservation ->
+                reservation.getHoldExpiresAt() != null
+                        && !reservation.getHoldExpiresAt().isBefore(before.plus(Duration.ofHours(48)))
+                        && reservation.getHoldExpiresAt().isBefore(Instant.now().plus(Duration.ofHours(48)).plusSeconds(1))));
+    }
+
     @Test
     void should_confirm_bank_transfer_payment_when_amount_is_full() {
         event = new BankTransferPaymentEvent(
@@ -92,6 +136,10 @@ public class BankTransferPaymentTests {
 
         boolean result = reservationService.handleBankTransferPayment(event);
         assertTrue(result);
+        Mockito.verify(reservationRepository).saveAndFlush(reservation);
+        Mockito.verify(reservationOutbox).recordStatusChange(Mockito.anyLong(), Mockito.eq(3L),
+                Mockito.eq(ReservationStatus.PENDING_PAYMENT), Mockito.eq(ReservationStatus.CONFIRMED));
+        Mockito.verify(reservationReadModel).statusChanged(List.of(4145478L));
     }
 
     @Test
@@ -113,6 +161,13 @@ public class BankTransferPaymentTests {
 
     }
 
+    private void stubChangedVersions(ReservationStatus status) {
+        Mockito.when(reservationRepository.findVersionsByIdInAndStatus(Mockito.anyList(), Mockito.eq(status)))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                        .map(id -> new ReservationVersion(id, 1L))
+                        .toList());
+    }
+
     private Reservation getReservation() {
         Reservation reservation = new Reservation();
         reservation.setRoomNumber(1);
@@ -123,22 +178,83 @@ public class BankTransferPaymentTests {
         reservation.setPaymentMode(PaymentMode.BANK_TRANSFER);
         reservation.setPaymentReference("4145478");
         reservation.setTotalAmount(250);
+        reservation.setVersion(3L);
         return reservation;
     }
 
     @Test
     void should_call_cancelPendingBankTransfers() {
-        List<ReservationSummary> reservationSummaryList =
-                List.of(new ReservationSummary(1L, LocalDate.now().plusDays(1), ReservationStatus.PENDING_PAYMENT),
-                        new ReservationSummary(2L, LocalDate.now().plusDays(1), ReservationStatus.PENDING_PAYMENT),
-                        new ReservationSummary(3L, LocalDate.now().plusDays(5), ReservationStatus.PENDING_PAYMENT)
-                );
-
-        Mockito.when(reservationRepository.findPendingBankTransfers(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(reservationSummaryList);
-        Mockito.when(reservationRepository.updateStatusByIds(Mockito.any(), Mockito.any())).thenReturn(3);
+        Mockito.when(reservationRepository.findPendingBankTransferIdsAfter(Mockito.anyLong(), Mockito.anyInt(),
+                        Mockito.anyInt(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(1L, 2L, 3L));
+        Mockito.when(reservationRepository.updateStatusByIdsAndStatus(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(3);
+        stubChangedVersions(ReservationStatus.CANCELLED);
 
         boolean result = reservationService.cancelPendingBankTransfers(2);
         assertTrue(result);
     }
 
+    @Test
+    void should_cancel_pending_bank_transfers_in_chunks() {
+        Mockito.when(reservationRepository.findPendingBankTransferIdsAfter(Mockito.anyLong(), Mockito.anyInt(),
+                        Mockito.anyInt(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of());
+        Mockito.when(reservationRepository.updateStatusByIdsAndStatus(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(2);
+        stubChangedVersions(ReservationStatus.CANCELLED);
+
+        boolean result = reservationService.cancelPendingBankTransfers(2, 2);
+        assertTrue(result);
+
+        Mockito.verify(reservationRepository).findPendingBankTransferIdsAfter(Mockito.eq(2L), Mockito.anyInt(),
+                Mockito.anyInt(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(reservationRepository, Mockito.times(2))
+                .updateStatusByIdsAndStatus(Mockito.any(), Mockito.eq(ReservationStatus.PENDING_PAYMENT), Mockito.eq(ReservationStatus.CANCELLED));
+    }
+
+    @Test
+    void should_confirm_fully_paid_reservations_of_a_batch_with_one_update() {
+        Reservation paid = getReservation();
+        paid.setId(4145478L);
+        paid.setStatus(ReservationStatus.PENDING_PAYMENT);
+
+        Reservation partiallyPaid = getReservation();
+        partiallyPaid.setId(4145479L);
+        partiallyPaid.setStatus(ReservationStatus.PENDING_PAYMENT);
+
+        List<BankTransferPaymentEvent> events = List.of(
+                new BankTransferPaymentEvent("Attribute Description Test", 1L, 123, 250, "1401541457 P4145478"),
+                new BankTransferPaymentEvent("Attribute Description Test", 2L, 123, 100, "1401541457 P4145479"),
+                new BankTransferPaymentEvent("Attribute Description Test", 3L, 123, 250, "1401541457")
+        );
+        Mockito.when(reservationRepository.findAllById(Mockito.any())).thenReturn(List.of(paid, partiallyPaid));
+        Mockito.when(reservationRepository.updateStatusByIdsAndStatus(
+                List.of(4145478L), ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED)).thenReturn(1);
+        Mockito.when(reservationRepository.findVersionsByIdInAndStatus(List.of(4145478L), ReservationStatus.CONFIRMED))
+                .thenReturn(List.of(new ReservationVersion(4145478L, 4L)));
+
+        int confirmed = reservationService.handleBankTransferPayments(events);
+        assertEquals(1, confirmed);
+    }
+
+    @Test
+    void should_confirm_reservation_on_full_payment_following_a_partial_one_in_the_same_batch() {
+        Reservation reservation = getReservation();
+        reservation.setId(4145478L);
+        reservation.setStatus(ReservationStatus.PENDING_PAYMENT);
+
+        List<BankTransferPaymentEvent> events = List.of(
+                new BankTransferPaymentEvent("Attribute Description Test", 1L, 123, 100, "1401541457 P4145478"),
+                new BankTransferPaymentEvent("Attribute Description Test", 2L, 123, 250, "1401541457 P4145478")
+        );
+        Mockito.when(reservationRepository.findAllById(Mockito.any())).thenReturn(List.of(reservation));
+        Mockito.when(reservationRepository.updateStatusByIdsAndStatus(
+                List.of(4145478L), ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED)).thenReturn(1);
+        Mockito.when(reservationRepository.findVersionsByIdInAndStatus(List.of(4145478L), ReservationStatus.CONFIRMED))
+                .thenReturn(List.of(new ReservationVersion(4145478L, 4L)));
+
+        int confirmed = reservationService.handleBankTransferPayments(events);
+        assertEquals(1, confirmed);
+        Mockito.verify(reservationReadModel).statusChanged(List.of(4145478L));
+    }
+
 }
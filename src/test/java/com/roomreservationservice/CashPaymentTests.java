@@ -1,25 +1,43 @@
 package com.roomreservationservice;
 
+import com.roomreservationservice.config.HoldProperties;
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.dto.BulkReservationResponse;
 import com.roomreservationservice.dto.ReservationRequest;
 import com.roomreservationservice.dto.ReservationResponse;
 import com.roomreservationservice.enums.PaymentMode;
 import com.roomreservationservice.enums.ReservationStatus;
 import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.exception.RoomAlreadyBookedException;
 import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.model.Reservation;
 import com.roomreservationservice.repository.ReservationRepository;
 import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import com.roomreservationservice.service.hold.HoldTimer;
+import com.roomreservationservice.service.outbox.ReservationOutbox;
 import com.roomreservationservice.service.paymentstrategy.BankTransferPayment;
 import com.roomreservationservice.service.paymentstrategy.CashPayment;
 import com.roomreservationservice.service.paymentstrategy.CreditCardPayment;
 import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,20 +49,38 @@ public class CashPaymentTests {
     @Mock
     private CreditCardPaymentClient creditCardPaymentClient;
 
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private ReservationReadModel reservationReadModel;
+
     private ReservationService reservationService;
 
     @BeforeEach
     void setUp() {
+        reservationService = reservationService(new HotelProperties(Map.of(), Map.of()));
+    }
+
+    private ReservationService reservationService(HotelProperties hotelProperties) {
+        ShardRouter shardRouter = ShardRouter.unsharded(ShardingProperties.UNSHARDED);
         PaymentStrategyFactory factory =
                 new PaymentStrategyFactory(List.of(
                         new CashPayment(),
-                        new CreditCardPayment(creditCardPaymentClient),
+                        new CreditCardPayment(creditCardPaymentClient, false),
                         new BankTransferPayment()
                 ));
 
-        reservationService = new ReservationService(
+        return new ReservationService(
                 reservationRepository,
-                factory
+                factory,
+                new RoomAvailabilityIndex(reservationRepository, hotelProperties, shardRouter),
+                TransactionOperations.withoutTransaction(),
+                new ReservationMetrics(new SimpleMeterRegistry()),
+                reservationOutbox,
+                reservationReadModel,
+                new HoldTimer(reservationRepository, new HoldProperties(Map.of()), shardRouter, 1000),
+                shardRouter
         );
     }
 
@@ -53,6 +89,7 @@ public class CashPaymentTests {
 
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -72,6 +109,7 @@ public class CashPaymentTests {
 
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -86,5 +124,129 @@ public class CashPaymentTests {
         assertTrue(exception.getMessage().contains("Reservations cannot be more than 30 days."));
     }
 
+    @Test
+    void should_reject_conflicting_request_within_bulk_reservation() {
+        ReservationRequest first =
+                new ReservationRequest(
+                        null,
+                        1,
+                        "Berkan",
+                        LocalDate.now(),
+                        LocalDate.now().plusDays(3),
+                        RoomSegment.EXTRA_LARGE,
+                        PaymentMode.CASH,
+                        null,
+                        100
+                );
+        ReservationRequest overlapping =
+                new ReservationRequest(
+                        null,
+                        1,
+                        "Alex",
+                        LocalDate.now().plusDays(2),
+                        LocalDate.now().plusDays(4),
+                        RoomSegment.EXTRA_LARGE,
+                        PaymentMode.CASH,
+                        null,
+                        100
+                );
+        ReservationRequest otherRoom =
+                new ReservationRequest(
+                        null,
+                        2,
+                        "Alex",
+                        LocalDate.now().plusDays(2),
+                        LocalDate.now().plusDays(4),
+                        RoomSegment.EXTRA_LARGE,
+                        PaymentMode.CASH,
+                        null,
+                        100
+                );
+
+        BulkReservationResponse response = reservationService.confirmReservations(List.of(first, overlapping, otherRoom));
+
+        assertEquals(2, response.confirmed().size());
+        assertEquals(1, response.rejected().size());
+        assertEquals(1, response.rejected().getFirst().requestIndex());
+    }
+
+    @Test
+    void should_translate_overlap_constraint_violation_to_room_already_booked() {
+        ReservationRequest request =
+                new ReservationRequest(
+                        null,
+                        1,
+                        "Berkan",
+                        LocalDate.now(),
+                        LocalDate.now().plusDays(2),
+                        RoomSegment.EXTRA_LARGE,
+                        PaymentMode.CASH,
+                        null,
+                        100
+                );
+
+        Mockito.when(reservationRepository.save(Mockito.any()))
+                .thenThrow(new DataIntegrityViolationException("reservations_room_no_overlap",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .thenReturn(null);
+
+        assertThrows(RoomAlreadyBookedException.class, () -> reservationService.confirmReservation(request));
 
+        ReservationResponse response = reservationService.confirmReservation(request);
+        assertEquals(ReservationStatus.CONFIRMED, response.reservationStatus());
+    }
+
+    @Test
+    void should_reject_only_the_room_booked_concurrently_when_batch_insert_hits_overlap() {
+        ReservationRequest taken = new ReservationRequest(null, 1, "Berkan", LocalDate.now(), LocalDate.now().plusDays(2),
+                RoomSegment.EXTRA_LARGE, PaymentMode.CASH, null, 100);
+        ReservationRequest free = new ReservationRequest(null, 2, "Alex", LocalDate.now(), LocalDate.now().plusDays(2),
+                RoomSegment.EXTRA_LARGE, PaymentMode.CASH, null, 100);
+        DataIntegrityViolationException overlap = new DataIntegrityViolationException("reservations_property_room_no_overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+        Mockito.when(reservationRepository.saveAll(Mockito.<List<Reservation>>any())).thenAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            if (reservations.stream().anyMatch(reservation -> reservation.getRoomNumber() == 1)) throw overlap;
+            return reservations;
+        });
+
+        BulkReservationResponse response = reservationService.confirmReservations(List.of(taken, free));
+
+        assertEquals(1, response.confirmed().size());
+        assertEquals(1, response.confirmed().getFirst().requestIndex());
+        assertEquals(1, response.rejected().size());
+        assertEquals(0, response.rejected().getFirst().requestIndex());
+        assertTrue(response.rejected().getFirst().reason().contains("Room 1 is already booked"));
+    }
+
+    @Test
+    void should_move_any_room_request_to_next_free_room_when_chosen_room_was_booked_elsewhere() {
+        ReservationService anyRoomService = reservationService(
+                new HotelProperties(Map.of(RoomSegment.SMALL, List.of(101, 102, 103)), Map.of()));
+        ReservationRequest request = new ReservationRequest(null, ReservationRequest.ANY_ROOM, "Berkan", LocalDate.now(),
+                LocalDate.now().plusDays(2), RoomSegment.SMALL, PaymentMode.CASH, null, 100);
+        Mockito.when(reservationRepository.save(Mockito.any()))
+                .thenThrow(new DataIntegrityViolationException("reservations_property_room_no_overlap",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .thenReturn(null);
+
+        ReservationResponse response = anyRoomService.confirmReservation(request);
+
+        assertEquals(ReservationStatus.CONFIRMED, response.reservationStatus());
+        assertEquals(102, response.roomNumber());
+    }
+
+    @Test
+    void should_give_up_any_room_request_after_bounded_attempts() {
+        ReservationService anyRoomService = reservationService(
+                new HotelProperties(Map.of(RoomSegment.SMALL, List.of(101, 102, 103, 104, 105)), Map.of()));
+        ReservationRequest request = new ReservationRequest(null, ReservationRequest.ANY_ROOM, "Berkan", LocalDate.now(),
+                LocalDate.now().plusDays(2), RoomSegment.SMALL, PaymentMode.CASH, null, 100);
+        Mockito.when(reservationRepository.save(Mockito.any()))
+                .thenThrow(new DataIntegrityViolationException("reservations_property_room_no_overlap",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(RoomAlreadyBookedException.class, () -> anyRoomService.confirmReservation(request));
+        Mockito.verify(reservationRepository, Mockito.times(3)).save(Mockito.any());
+    }
 }
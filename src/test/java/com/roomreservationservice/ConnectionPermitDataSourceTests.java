@@ -0,0 +1,62 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.ConnectionPermitDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPermitDataSourceTests {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void should_return_permit_when_connection_is_closed() throws SQLException {
+        Mockito.when(targetDataSource.getConnection()).thenReturn(connection);
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(targetDataSource, 1, 10);
+
+        Connection borrowed = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+
+        borrowed.close();
+        borrowed.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        Mockito.verify(connection, Mockito.times(2)).close();
+    }
+
+    @Test
+    void should_time_out_when_all_permits_are_taken() throws SQLException {
+        Mockito.when(targetDataSource.getConnection()).thenReturn(connection);
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(targetDataSource, 1, 10);
+
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        Mockito.verify(targetDataSource, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    void should_return_permit_when_pool_fails_to_hand_out_connection() throws SQLException {
+        Mockito.when(targetDataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(targetDataSource, 1, 10);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+}
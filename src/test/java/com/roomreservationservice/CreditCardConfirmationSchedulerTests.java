@@ -0,0 +1,102 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.exception.PaymentProviderException;
+import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.projection.PendingPayment;
+import com.roomreservationservice.service.CreditCardConfirmationScheduler;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.lease.SchedulerLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class CreditCardConfirmationSchedulerTests {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private CreditCardPaymentClient creditCardPaymentClient;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    private CreditCardConfirmationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CreditCardConfirmationScheduler(reservationService, creditCardPaymentClient, schedulerLeaseService,
+                ShardRouter.unsharded(ShardingProperties.UNSHARDED), 3, 2, 300);
+    }
+
+    @Test
+    void should_skip_shard_whose_lease_another_instance_holds() {
+        Mockito.when(schedulerLeaseService.tryAcquire(Mockito.eq("credit-card-confirmation"), Mockito.any())).thenReturn(false);
+
+        scheduler.confirmPendingPayments();
+
+        Mockito.verifyNoInteractions(reservationService, creditCardPaymentClient);
+        Mockito.verify(schedulerLeaseService, Mockito.never()).release(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void should_confirm_accepted_and_cancel_rejected_payments_and_leave_failed_ones_pending() {
+        Mockito.when(schedulerLeaseService.tryAcquire(Mockito.eq("credit-card-confirmation"), Mockito.any())).thenReturn(true);
+        Mockito.when(reservationService.findPendingCreditCardPayments(0, 3)).thenReturn(List.of(
+                new PendingPayment(1L, "4145478"),
+                new PendingPayment(2L, "1234"),
+                new PendingPayment(3L, "5555")));
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("4145478")).thenReturn(Mono.just(true));
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("1234")).thenReturn(Mono.just(false));
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("5555"))
+                .thenReturn(Mono.error(new PaymentProviderException("Credit card service timed out")));
+        Mockito.when(reservationService.findPendingCreditCardPayments(3, 3)).thenReturn(List.of());
+
+        scheduler.confirmPendingPayments();
+
+        Mockito.verify(reservationService).completeCreditCardPayments(List.of(1L), List.of(2L));
+        Mockito.verify(schedulerLeaseService).release(Mockito.eq("credit-card-confirmation"), Mockito.any());
+    }
+
+    @Test
+    void should_cancel_payment_the_provider_does_not_know() {
+        Mockito.when(schedulerLeaseService.tryAcquire(Mockito.eq("credit-card-confirmation"), Mockito.any())).thenReturn(true);
+        Mockito.when(reservationService.findPendingCreditCardPayments(0, 3)).thenReturn(List.of(
+                new PendingPayment(1L, "4145478"),
+                new PendingPayment(2L, "9999")));
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("4145478")).thenReturn(Mono.just(true));
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("9999"))
+                .thenReturn(Mono.error(new IllegalStateException("Payment not found: unknown payment reference")));
+
+        scheduler.confirmPendingPayments();
+
+        Mockito.verify(reservationService).completeCreditCardPayments(List.of(1L), List.of(2L));
+    }
+
+    @Test
+    void should_continue_after_the_last_id_of_a_full_batch() {
+        Mockito.when(schedulerLeaseService.tryAcquire(Mockito.eq("credit-card-confirmation"), Mockito.any())).thenReturn(true);
+        Mockito.when(reservationService.findPendingCreditCardPayments(0, 3)).thenReturn(List.of(
+                new PendingPayment(4L, "4145478"),
+                new PendingPayment(5L, "4145478"),
+                new PendingPayment(9L, "4145478")));
+        Mockito.when(reservationService.findPendingCreditCardPayments(9, 3)).thenReturn(List.of(
+                new PendingPayment(12L, "4145478")));
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("4145478")).thenReturn(Mono.just(true));
+
+        scheduler.confirmPendingPayments();
+
+        Mockito.verify(reservationService).completeCreditCardPayments(
+                Mockito.argThat(ids -> ids.size() == 3 && ids.containsAll(List.of(4L, 5L, 9L))), Mockito.eq(List.of()));
+        Mockito.verify(reservationService).completeCreditCardPayments(List.of(12L), List.of());
+    }
+}
@@ -0,0 +1,179 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.PaymentClientProperties;
+import com.roomreservationservice.exception.PaymentProviderException;
+import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the payment client against a local stub of the payment provider to cover its failure modes.
+ */
+class CreditCardPaymentClientTests {
+
+    private static final String CONFIRMED = "{\"lastUpdateDate\":\"2026-01-31T12:00:00Z\",\"status\":\"CONFIRMED\"}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile IntFunction<StubResponse> responder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/payment-status", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void should_confirm_payment_when_provider_confirms() {
+        responder = request -> new StubResponse(200, CONFIRMED, 0);
+
+        assertTrue(client(0).validatePayment("4145478"));
+    }
+
+    @Test
+    void should_fail_with_provider_exception_when_provider_is_too_slow() {
+        responder = request -> new StubResponse(200, CONFIRMED, 1_000);
+
+        assertThrows(PaymentProviderException.class, () -> client(0).validatePayment("4145478"));
+    }
+
+    @Test
+    void should_retry_provider_failure_with_backoff() {
+        responder = request -> request == 1
+                ? new StubResponse(503, "{\"error\":\"maintenance\"}", 0)
+                : new StubResponse(200, CONFIRMED, 0);
+
+        assertTrue(client(1).validatePayment("4145478"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void should_open_circuit_and_stop_calling_failing_provider() {
+        responder = request -> new StubResponse(500, "{\"error\":\"down\"}", 0);
+        CreditCardPaymentClient client = client(0);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(PaymentProviderException.class, () -> client.validatePayment("4145478"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitBreakerState());
+
+        PaymentProviderException exception =
+                assertThrows(PaymentProviderException.class, () -> client.validatePayment("4145478"));
+        assertInstanceOf(CallNotPermittedException.class, exception.getCause());
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void should_reject_call_beyond_bulkhead_limit_without_reaching_provider() throws Exception {
+        responder = request -> new StubResponse(200, CONFIRMED, 200);
+        CreditCardPaymentClient client = client(0, 1, 0);
+
+        CompletableFuture<Boolean> first = client.validatePaymentAsync("4145478").toFuture();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (requests.get() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        PaymentProviderException exception =
+                assertThrows(PaymentProviderException.class, () -> client.validatePayment("4145479"));
+        assertInstanceOf(BulkheadFullException.class, exception.getCause());
+        assertTrue(first.get());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void should_answer_with_hedged_request_when_first_attempt_is_slow() {
+        // The first attempt alone would run into the 300 ms call timeout.
+        responder = request -> request == 1
+                ? new StubResponse(200, CONFIRMED, 1_000)
+                : new StubResponse(200, CONFIRMED, 0);
+
+        assertTrue(client(0, 5, 50).validatePayment("4145478"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void should_answer_with_hedged_request_when_first_attempt_fails_before_it() {
+        responder = request -> request == 1
+                ? new StubResponse(503, "{\"error\":\"maintenance\"}", 100)
+                : new StubResponse(200, CONFIRMED, 100);
+
+        assertTrue(client(0, 5, 50).validatePayment("4145478"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void should_report_provider_failure_when_both_hedged_attempts_fail() {
+        responder = request -> new StubResponse(503, "{\"error\":\"maintenance\"}", 0);
+
+        assertThrows(PaymentProviderException.class, () -> client(0, 5, 20).validatePayment("4145478"));
+    }
+
+    private CreditCardPaymentClient client(int maxRetries) {
+        return client(maxRetries, 5, 0);
+    }
+
+    private CreditCardPaymentClient client(int maxRetries, int maxConcurrentCalls, long hedgeDelayMillis) {
+        PaymentClientProperties properties = new PaymentClientProperties(
+                "http://localhost:" + server.getAddress().getPort() + "/payment-status",
+                500,
+                500,
+                10,
+                500,
+                30_000,
+                300,
+                new PaymentClientProperties.Bulkhead(maxConcurrentCalls, 0),
+                new PaymentClientProperties.CircuitBreaker(50, 50, 3_000, 4, 4, 60_000),
+                new PaymentClientProperties.Retry(maxRetries, 10, hedgeDelayMillis)
+        );
+        return new CreditCardPaymentClient(WebClient.builder().build(),
+                new ReservationMetrics(new SimpleMeterRegistry()), properties);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        StubResponse response = responder.apply(requests.incrementAndGet());
+        try {
+            Thread.sleep(response.delayMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record StubResponse(int status, String body, long delayMillis) {
+    }
+
+}
@@ -1,26 +1,49 @@
 package com.roomreservationservice;
 
+import com.roomreservationservice.config.HoldProperties;
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.dto.BulkReservationResponse;
 import com.roomreservationservice.dto.ReservationRequest;
 import com.roomreservationservice.dto.ReservationResponse;
 import com.roomreservationservice.enums.PaymentMode;
 import com.roomreservationservice.enums.ReservationStatus;
 import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.exception.PaymentProviderException;
 import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.model.Reservation;
 import com.roomreservationservice.repository.ReservationRepository;
 import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import com.roomreservationservice.service.hold.HoldTimer;
+import com.roomreservationservice.service.outbox.ReservationOutbox;
 import com.roomreservationservice.service.paymentstrategy.BankTransferPayment;
 import com.roomreservationservice.service.paymentstrategy.CashPayment;
 import com.roomreservationservice.service.paymentstrategy.CreditCardPayment;
 import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,20 +56,41 @@ class CreditCardPaymentTests {
     @Mock
     private CreditCardPaymentClient creditCardPaymentClient;
 
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private ReservationReadModel reservationReadModel;
+
+    private RoomAvailabilityIndex availabilityIndex;
+
     private ReservationService reservationService;
 
     @BeforeEach
     void setUp() {
+        reservationService = reservationService(TransactionOperations.withoutTransaction());
+    }
+
+    private ReservationService reservationService(TransactionOperations transactionOperations) {
+        ShardRouter shardRouter = ShardRouter.unsharded(ShardingProperties.UNSHARDED);
         PaymentStrategyFactory factory =
                 new PaymentStrategyFactory(List.of(
                         new CashPayment(),
-                        new CreditCardPayment(creditCardPaymentClient),
+                        new CreditCardPayment(creditCardPaymentClient, false),
                         new BankTransferPayment()
                 ));
+        availabilityIndex = new RoomAvailabilityIndex(reservationRepository, new HotelProperties(Map.of(), Map.of()), shardRouter);
 
-        reservationService = new ReservationService(
+        return new ReservationService(
                 reservationRepository,
-                factory
+                factory,
+                availabilityIndex,
+                transactionOperations,
+                new ReservationMetrics(new SimpleMeterRegistry()),
+                reservationOutbox,
+                reservationReadModel,
+                new HoldTimer(reservationRepository, new HoldProperties(Map.of()), shardRouter, 1000),
+                shardRouter
         );
     }
 
@@ -55,6 +99,7 @@ class CreditCardPaymentTests {
 
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -77,6 +122,7 @@ class CreditCardPaymentTests {
 
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -96,6 +142,7 @@ class CreditCardPaymentTests {
     void should_confirm_reservation_when_payment_is_credit_card() {
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -112,10 +159,57 @@ class CreditCardPaymentTests {
         assertEquals(ReservationStatus.CONFIRMED, response.reservationStatus());
     }
 
+    @Test
+    void should_call_payment_provider_outside_the_transaction_that_stores_the_reservation() {
+        ReservationService transactionalService = reservationService(new TransactionTemplate(new NoOpTransactionManager()));
+        ReservationRequest request = new ReservationRequest(null, 1, "Berkan", LocalDate.now(), LocalDate.now().plusDays(2),
+                RoomSegment.EXTRA_LARGE, PaymentMode.CREDIT_CARD, "4145478", 100L);
+        List<Boolean> paidInTransaction = new ArrayList<>();
+        List<Boolean> storedInTransaction = new ArrayList<>();
+        Mockito.when(creditCardPaymentClient.validatePayment("4145478")).thenAnswer(invocation -> {
+            paidInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return true;
+        });
+        Mockito.when(reservationRepository.save(Mockito.any(Reservation.class))).thenAnswer(invocation -> {
+            storedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.getArgument(0);
+        });
+
+        transactionalService.confirmReservation(request);
+
+        assertEquals(List.of(false), paidInTransaction);
+        assertEquals(List.of(true), storedInTransaction);
+    }
+
+    @Test
+    void should_release_room_hold_when_payment_fails() {
+        ReservationRequest request = new ReservationRequest(null, 1, "Berkan", LocalDate.now(), LocalDate.now().plusDays(2),
+                RoomSegment.EXTRA_LARGE, PaymentMode.CREDIT_CARD, "4145478", 100L);
+        Mockito.when(creditCardPaymentClient.validatePayment("4145478"))
+                .thenThrow(new PaymentProviderException("Credit card payment service is unavailable"));
+
+        assertThrows(PaymentProviderException.class, () -> reservationService.confirmReservation(request));
+
+        assertFalse(availabilityIndex.isOccupied(ReservationRequest.DEFAULT_PROPERTY, 1, LocalDate.now(), LocalDate.now().plusDays(2)));
+        Mockito.verify(reservationRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void should_store_credit_card_reservation_as_pending_without_calling_provider_in_async_mode() {
+        Reservation reservation = new Reservation();
+        reservation.setPaymentReference("4145478");
+
+        ReservationStatus status = new CreditCardPayment(creditCardPaymentClient, true).processPayment(reservation);
+
+        assertEquals(ReservationStatus.PENDING_PAYMENT, status);
+        Mockito.verifyNoInteractions(creditCardPaymentClient);
+    }
+
     @Test
     void should_error_bad_request_reservation_when_payment_is_credit_card() {
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -139,6 +233,7 @@ class CreditCardPaymentTests {
     void should_error_not_found_reservation_when_payment_is_credit_card() {
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -161,6 +256,7 @@ class CreditCardPaymentTests {
     void should_server_internal_error_reservation_when_payment_is_credit_card() {
         ReservationRequest request =
                 new ReservationRequest(
+                        null,
                         1,
                         "Berkan",
                         LocalDate.now(),
@@ -179,5 +275,46 @@ class CreditCardPaymentTests {
         assertTrue(exception.getMessage().contains("Credit card service failure"));
     }
 
+    @Test
+    void should_reject_only_bulk_item_whose_payment_provider_call_fails() {
+        ReservationRequest paid = new ReservationRequest(null, 1, "Berkan", LocalDate.now(), LocalDate.now().plusDays(2),
+                RoomSegment.EXTRA_LARGE, PaymentMode.CREDIT_CARD, "4145478", 100L);
+        ReservationRequest refused = new ReservationRequest(null, 2, "Alex", LocalDate.now(), LocalDate.now().plusDays(2),
+                RoomSegment.EXTRA_LARGE, PaymentMode.CREDIT_CARD, "1234", 100L);
+        Mockito.when(creditCardPaymentClient.validatePayment("4145478")).thenReturn(true);
+        Mockito.when(creditCardPaymentClient.validatePayment("1234")).thenThrow(
+                WebClientResponseException.create(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Unprocessable Entity", null, null, null));
+
+        BulkReservationResponse response = reservationService.confirmReservations(List.of(paid, refused));
+
+        assertEquals(1, response.confirmed().size());
+        assertEquals(1, response.rejected().size());
+        assertEquals(1, response.rejected().getFirst().requestIndex());
+        Mockito.verify(reservationRepository).saveAll(Mockito.<List<Reservation>>argThat(reservations ->
+                reservations.size() == 1 && reservations.getFirst().getRoomNumber() == 1));
+    }
+
+    /**
+     * Transaction manager without a resource, so the code under test runs inside a real Spring
+     * transaction without a database.
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
 
-}
\ No newline at end of file
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.service.HoldExpirationScheduler;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.hold.HoldTimer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+class HoldExpirationSchedulerTests {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private HoldTimer holdTimer;
+
+    private HoldExpirationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new HoldExpirationScheduler(reservationService, holdTimer,
+                ShardRouter.unsharded(ShardingProperties.UNSHARDED), 2);
+    }
+
+    @Test
+    void should_cancel_due_holds_in_chunks() {
+        Mockito.when(holdTimer.expireDue(Mockito.any())).thenReturn(Map.of(ShardingProperties.UNSHARDED, List.of(1L, 2L, 3L)));
+
+        scheduler.expireDueHolds();
+
+        Mockito.verify(reservationService).cancelExpiredHolds(List.of(1L, 2L));
+        Mockito.verify(reservationService).cancelExpiredHolds(List.of(3L));
+    }
+
+    @Test
+    void should_keep_cancelling_remaining_chunks_when_one_fails() {
+        Mockito.when(holdTimer.expireDue(Mockito.any())).thenReturn(Map.of(ShardingProperties.UNSHARDED, List.of(1L, 2L, 3L)));
+        Mockito.when(reservationService.cancelExpiredHolds(Mockito.anyList()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+
+        scheduler.expireDueHolds();
+
+        Mockito.verify(reservationService).cancelExpiredHolds(List.of(1L, 2L));
+        Mockito.verify(reservationService).cancelExpiredHolds(List.of(3L));
+    }
+
+    @Test
+    void should_not_touch_reservations_when_no_hold_is_due() {
+        Mockito.when(holdTimer.expireDue(Mockito.any())).thenReturn(Map.of());
+
+        scheduler.expireDueHolds();
+
+        Mockito.verifyNoInteractions(reservationService);
+    }
+}
@@ -0,0 +1,169 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.exception.AlreadyExistsException;
+import com.roomreservationservice.model.IdempotencyRecord;
+import com.roomreservationservice.repository.IdempotencyRecordRepository;
+import com.roomreservationservice.service.idempotency.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTests {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    private final ReservationRequest request =
+            new ReservationRequest(
+                    null,
+                    1,
+                    "Berkan",
+                    LocalDate.now(),
+                    LocalDate.now().plusDays(2),
+                    RoomSegment.EXTRA_LARGE,
+                    PaymentMode.CASH,
+                    null,
+                    100
+            );
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, 100, 60, 60, false);
+    }
+
+    @Test
+    void should_replay_response_for_retried_key_without_running_operation_again() {
+        AtomicInteger executions = new AtomicInteger();
+
+        ReservationResponse first = idempotencyService.execute("key-1", request, () -> {
+            executions.incrementAndGet();
+            return new ReservationResponse(10L, ReservationStatus.CONFIRMED, 101);
+        });
+        ReservationResponse retry = idempotencyService.execute("key-1", request, () -> {
+            executions.incrementAndGet();
+            return new ReservationResponse(11L, ReservationStatus.CONFIRMED, 101);
+        });
+
+        assertEquals(first, retry);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void should_reject_reused_key_with_different_request() {
+        idempotencyService.execute("key-1", request, () -> new ReservationResponse(10L, ReservationStatus.CONFIRMED, 101));
+
+        ReservationRequest otherRequest =
+                new ReservationRequest(
+                        null,
+                        2,
+                        "Berkan",
+                        LocalDate.now(),
+                        LocalDate.now().plusDays(2),
+                        RoomSegment.EXTRA_LARGE,
+                        PaymentMode.CASH,
+                        null,
+                        100
+                );
+
+        assertThrows(AlreadyExistsException.class, () -> idempotencyService.execute("key-1", otherRequest,
+                () -> new ReservationResponse(11L, ReservationStatus.CONFIRMED, 101)));
+    }
+
+    @Test
+    void should_allow_retry_after_failed_request() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", request, () -> {
+            throw new IllegalStateException("Credit Card payment failed.");
+        }));
+
+        ReservationResponse retry = idempotencyService.execute("key-1", request,
+                () -> new ReservationResponse(10L, ReservationStatus.CONFIRMED, 101));
+        assertEquals(10L, retry.reservationId());
+    }
+
+    @Test
+    void should_replay_persisted_response_when_another_instance_claimed_the_key() {
+        IdempotencyService persistentService = new IdempotencyService(idempotencyRecordRepository, 100, 60, 60, true);
+        stubClaimLost("key-1", 10L, ReservationStatus.CONFIRMED);
+        AtomicInteger executions = new AtomicInteger();
+
+        ReservationResponse replayed = persistentService.execute("key-1", request, () -> {
+            executions.incrementAndGet();
+            return new ReservationResponse(11L, ReservationStatus.CONFIRMED, 101);
+        });
+
+        assertEquals(new ReservationResponse(10L, ReservationStatus.CONFIRMED, 101), replayed);
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void should_reject_key_while_another_instance_is_still_running_it() {
+        IdempotencyService persistentService = new IdempotencyService(idempotencyRecordRepository, 100, 60, 60, true);
+        stubClaimLost("key-1", null, null);
+
+        assertThrows(AlreadyExistsException.class, () -> persistentService.execute("key-1", request,
+                () -> new ReservationResponse(10L, ReservationStatus.CONFIRMED, 101)));
+    }
+
+    @Test
+    void should_record_response_of_claimed_key() {
+        IdempotencyService persistentService = new IdempotencyService(idempotencyRecordRepository, 100, 60, 60, true);
+        Mockito.when(idempotencyRecordRepository.tryClaim(Mockito.eq("key-1"), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(1);
+
+        persistentService.execute("key-1", request, () -> new ReservationResponse(10L, ReservationStatus.CONFIRMED, 101));
+
+        Mockito.verify(idempotencyRecordRepository).complete("key-1", 10L, ReservationStatus.CONFIRMED, 101);
+    }
+
+    @Test
+    void should_release_claimed_key_when_request_fails() {
+        IdempotencyService persistentService = new IdempotencyService(idempotencyRecordRepository, 100, 60, 60, true);
+        Mockito.when(idempotencyRecordRepository.tryClaim(Mockito.eq("key-1"), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> persistentService.execute("key-1", request, () -> {
+            throw new IllegalStateException("Credit Card payment failed.");
+        }));
+
+        Mockito.verify(idempotencyRecordRepository).deleteInProgress("key-1");
+    }
+
+    // The key is held by another instance; its record carries the fingerprint this request was claimed with.
+    private void stubClaimLost(String idempotencyKey, Long reservationId, ReservationStatus reservationStatus) {
+        AtomicReference<String> fingerprint = new AtomicReference<>();
+        Mockito.when(idempotencyRecordRepository.tryClaim(Mockito.eq(idempotencyKey), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    fingerprint.set(invocation.getArgument(1));
+                    return 0;
+                });
+        Mockito.when(idempotencyRecordRepository.findById(idempotencyKey)).thenAnswer(invocation -> {
+            IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+            idempotencyRecord.setIdempotencyKey(idempotencyKey);
+            idempotencyRecord.setRequestFingerprint(fingerprint.get());
+            idempotencyRecord.setReservationId(reservationId);
+            idempotencyRecord.setReservationStatus(reservationStatus);
+            idempotencyRecord.setRoomNumber(reservationStatus == null ? 0 : 101);
+            idempotencyRecord.setCreatedAt(Instant.now());
+            return Optional.of(idempotencyRecord);
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.infrastructure.messaging.OutboxRelay;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.model.OutboxEvent;
+import com.roomreservationservice.repository.OutboxEventRepository;
+import com.roomreservationservice.service.lease.SchedulerLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTests {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, TransactionOperations.withoutTransaction(),
+                ShardRouter.unsharded(ShardingProperties.UNSHARDED), schedulerLeaseService);
+        ReflectionTestUtils.setField(relay, "topic", "reservation-status-changed");
+        ReflectionTestUtils.setField(relay, "batchSize", 200);
+        ReflectionTestUtils.setField(relay, "lockAtMostForSeconds", 60L);
+    }
+
+    @Test
+    void should_not_relay_when_another_instance_holds_the_lease() {
+        Mockito.when(schedulerLeaseService.tryAcquire("reservation-outbox-relay", Duration.ofSeconds(60))).thenReturn(false);
+
+        relay.relay();
+
+        Mockito.verifyNoInteractions(outboxEventRepository, kafkaTemplate);
+        Mockito.verify(schedulerLeaseService, Mockito.never()).release(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void should_publish_and_delete_outbox_batch_under_the_lease() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(1);
+        event.setReservationId(4145478L);
+        event.setEventType("RESERVATION_STATUS_CHANGED");
+        event.setPayload("{}");
+        event.setCreatedAt(Instant.now());
+        Mockito.when(schedulerLeaseService.tryAcquire("reservation-outbox-relay", Duration.ofSeconds(60))).thenReturn(true);
+        Mockito.when(outboxEventRepository.findAllByOrderByIdAsc(Limit.of(200))).thenReturn(List.of(event));
+        Mockito.when(kafkaTemplate.send("reservation-status-changed", "4145478", "{}"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        Mockito.verify(outboxEventRepository).deleteAllInBatch(List.of(event));
+        Mockito.verify(schedulerLeaseService).release("reservation-outbox-relay", Duration.ZERO);
+    }
+
+    @Test
+    void should_release_the_lease_when_publishing_fails() {
+        Mockito.when(schedulerLeaseService.tryAcquire("reservation-outbox-relay", Duration.ofSeconds(60))).thenReturn(true);
+        Mockito.when(outboxEventRepository.findAllByOrderByIdAsc(Limit.of(200)))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        try {
+            relay.relay();
+        } catch (IllegalStateException ignored) {
+            // expected, the lease must still be given back
+        }
+
+        Mockito.verify(schedulerLeaseService).release("reservation-outbox-relay", Duration.ZERO);
+    }
+}
@@ -0,0 +1,91 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.service.banktransfer.PaymentReferenceParser;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.RepetitionInfo;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentReferenceParserTests {
+
+    // Oracle for the fuzz tests: the first whitespace-delimited P token with 1 to 18 digits.
+    private static final Pattern REFERENCE = Pattern.compile("(?<!\\S)P(\\d{1,18})(?!\\S)");
+    private static final String ALPHABET = "P0123456789 \t\nXp-/";
+
+    @Test
+    void should_parse_reference_in_second_position() {
+        assertEquals(4145478L, PaymentReferenceParser.parseReservationId("1401541457 P4145478"));
+    }
+
+    @Test
+    void should_parse_reference_in_any_position_with_extra_whitespace() {
+        assertEquals(4145478L, PaymentReferenceParser.parseReservationId("P4145478 1401541457"));
+        assertEquals(4145478L, PaymentReferenceParser.parseReservationId("  1401541457 \t  P4145478  "));
+        assertEquals(4145478L, PaymentReferenceParser.parseReservationId("SEPA 1401541457 ref\nP4145478"));
+    }
+
+    @Test
+    void should_skip_tokens_that_only_look_like_references() {
+        assertEquals(42L, PaymentReferenceParser.parseReservationId("P P12X 1401541457P1 P42"));
+    }
+
+    @Test
+    void should_reject_descriptions_without_a_reference() {
+        assertEquals(PaymentReferenceParser.NO_REFERENCE, PaymentReferenceParser.parseReservationId(null));
+        assertEquals(PaymentReferenceParser.NO_REFERENCE, PaymentReferenceParser.parseReservationId(""));
+        assertEquals(PaymentReferenceParser.NO_REFERENCE, PaymentReferenceParser.parseReservationId("1401541457"));
+        assertEquals(PaymentReferenceParser.NO_REFERENCE, PaymentReferenceParser.parseReservationId("1401541457 X4145478"));
+        assertEquals(PaymentReferenceParser.NO_REFERENCE, PaymentReferenceParser.parseReservationId("1401541457 p4145478"));
+    }
+
+    @Test
+    void should_reject_references_that_do_not_fit_in_a_long() {
+        assertEquals(PaymentReferenceParser.NO_REFERENCE,
+                PaymentReferenceParser.parseReservationId("1401541457 P9999999999999999999"));
+        assertEquals(999_999_999_999_999_999L,
+                PaymentReferenceParser.parseReservationId("1401541457 P999999999999999999"));
+    }
+
+    @RepeatedTest(200)
+    void should_find_reference_wherever_it_is_placed(RepetitionInfo repetitionInfo) {
+        Random random = new Random(repetitionInfo.getCurrentRepetition());
+        long reservationId = random.nextLong(1, 1_000_000_000_000L);
+
+        StringBuilder description = new StringBuilder();
+        int noiseBefore = random.nextInt(4);
+        for (int i = 0; i < noiseBefore; i++) {
+            description.append(random.nextLong(1_000_000_000L)).append(whitespace(random));
+        }
+        description.append('P').append(reservationId);
+        int noiseAfter = random.nextInt(4);
+        for (int i = 0; i < noiseAfter; i++) {
+            description.append(whitespace(random)).append(random.nextBoolean() ? "P" : "").append(random.nextLong(1_000_000_000L));
+        }
+
+        assertEquals(reservationId, PaymentReferenceParser.parseReservationId(description));
+    }
+
+    @RepeatedTest(500)
+    void should_agree_with_regex_oracle_on_random_input(RepetitionInfo repetitionInfo) {
+        Random random = new Random(31L * repetitionInfo.getCurrentRepetition());
+        StringBuilder description = new StringBuilder();
+        int length = random.nextInt(40);
+        for (int i = 0; i < length; i++) {
+            description.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+
+        Matcher matcher = REFERENCE.matcher(description);
+        long expected = matcher.find() ? Long.parseLong(matcher.group(1)) : PaymentReferenceParser.NO_REFERENCE;
+
+        assertEquals(expected, PaymentReferenceParser.parseReservationId(description), () -> "description: " + description);
+    }
+
+    private static String whitespace(Random random) {
+        return " ".repeat(1 + random.nextInt(3)) + (random.nextBoolean() ? "\t" : "");
+    }
+}
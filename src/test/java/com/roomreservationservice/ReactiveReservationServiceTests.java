@@ -0,0 +1,156 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.HoldProperties;
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.exception.RoomAlreadyBookedException;
+import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.reactive.ReactiveReservationRepository;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import com.roomreservationservice.service.hold.HoldTimer;
+import com.roomreservationservice.service.outbox.ReservationOutbox;
+import com.roomreservationservice.service.paymentstrategy.BankTransferPayment;
+import com.roomreservationservice.service.paymentstrategy.CashPayment;
+import com.roomreservationservice.service.paymentstrategy.CreditCardPayment;
+import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import com.roomreservationservice.service.reactive.ReactiveReservationService;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReservationServiceTests {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReactiveReservationRepository reactiveReservationRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private CreditCardPaymentClient creditCardPaymentClient;
+
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private ReservationReadModel reservationReadModel;
+
+    private RoomAvailabilityIndex availabilityIndex;
+    private ReactiveReservationService reactiveReservationService;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        ShardRouter shardRouter = ShardRouter.unsharded(ShardingProperties.UNSHARDED);
+        PaymentStrategyFactory factory =
+                new PaymentStrategyFactory(List.of(
+                        new CashPayment(),
+                        new CreditCardPayment(creditCardPaymentClient, false),
+                        new BankTransferPayment()
+                ));
+        availabilityIndex = new RoomAvailabilityIndex(reservationRepository, new HotelProperties(Map.of(), Map.of()), shardRouter);
+        ReservationMetrics metrics = new ReservationMetrics(new SimpleMeterRegistry());
+        ReservationService reservationService = new ReservationService(reservationRepository, factory, availabilityIndex,
+                TransactionOperations.withoutTransaction(), metrics, reservationOutbox, reservationReadModel,
+                new HoldTimer(reservationRepository, new HoldProperties(Map.of()), shardRouter, 1000), shardRouter);
+
+        Mockito.lenient().when(transactionalOperator.transactional(Mockito.<Mono<Long>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        reactiveReservationService = new ReactiveReservationService(reservationService, factory,
+                reactiveReservationRepository, transactionalOperator, reservationOutbox, reservationReadModel, metrics);
+    }
+
+    @Test
+    void should_confirm_credit_card_reservation_without_blocking_payment() {
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("4145478")).thenReturn(Mono.just(true));
+        Mockito.when(reactiveReservationRepository.insert(Mockito.any())).thenReturn(Mono.just(42L));
+        Mockito.when(reactiveReservationRepository.insertOutboxEvent(Mockito.any())).thenReturn(Mono.empty());
+
+        ReservationResponse response = reactiveReservationService.confirmReservation(request(101)).block();
+
+        assertNotNull(response);
+        assertEquals(42L, response.reservationId());
+        assertEquals(ReservationStatus.CONFIRMED, response.reservationStatus());
+        assertTrue(availabilityIndex.isOccupied(ReservationRequest.DEFAULT_PROPERTY, 101, today, today.plusDays(2)));
+        Mockito.verify(creditCardPaymentClient, Mockito.never()).validatePayment(Mockito.any());
+        Mockito.verify(reservationOutbox).toOutboxEvent(Mockito.eq(42L), Mockito.eq(ReservationOutbox.INITIAL_VERSION), Mockito.isNull(),
+                Mockito.eq(ReservationStatus.CONFIRMED), Mockito.any());
+    }
+
+    @Test
+    void should_release_room_when_payment_is_declined() {
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("4145478")).thenReturn(Mono.just(false));
+
+        Mono<ReservationResponse> confirmation = reactiveReservationService.confirmReservation(request(101));
+
+        assertThrows(IllegalStateException.class, confirmation::block);
+        assertFalse(availabilityIndex.isOccupied(ReservationRequest.DEFAULT_PROPERTY, 101, today, today.plusDays(2)));
+        Mockito.verifyNoInteractions(reactiveReservationRepository);
+    }
+
+    @Test
+    void should_map_exclusion_violation_to_room_already_booked_and_release_room() {
+        Mockito.when(creditCardPaymentClient.validatePaymentAsync("4145478")).thenReturn(Mono.just(true));
+        Mockito.when(reactiveReservationRepository.insert(Mockito.any())).thenReturn(Mono.error(
+                new DataIntegrityViolationException("overlap",
+                        new R2dbcDataIntegrityViolationException("conflicting key value", "23P01"))));
+
+        Mono<ReservationResponse> confirmation = reactiveReservationService.confirmReservation(request(101));
+
+        assertThrows(RoomAlreadyBookedException.class, confirmation::block);
+        assertFalse(availabilityIndex.isOccupied(ReservationRequest.DEFAULT_PROPERTY, 101, today, today.plusDays(2)));
+    }
+
+    @Test
+    void should_recheck_taken_room_against_database_off_the_subscribing_thread() {
+        availabilityIndex.markBooked(ReservationRequest.DEFAULT_PROPERTY, 101, today, today.plusDays(2));
+        AtomicReference<String> checkingThread = new AtomicReference<>();
+        Mockito.when(reservationRepository.existsByPropertyIdAndRoomNumberAndDateRange(
+                ReservationRequest.DEFAULT_PROPERTY, 101, today, today.plusDays(2))).thenAnswer(invocation -> {
+            checkingThread.set(Thread.currentThread().getName());
+            return true;
+        });
+
+        Mono<ReservationResponse> confirmation = reactiveReservationService.confirmReservation(request(101));
+
+        assertThrows(RoomAlreadyBookedException.class, confirmation::block);
+        assertTrue(checkingThread.get().startsWith("boundedElastic"), checkingThread.get());
+        Mockito.verifyNoInteractions(creditCardPaymentClient, reactiveReservationRepository);
+    }
+
+    private ReservationRequest request(int roomNumber) {
+        return new ReservationRequest(null, roomNumber, "Berkan", today, today.plusDays(2), RoomSegment.SMALL,
+                PaymentMode.CREDIT_CARD, "4145478", 100);
+    }
+}
@@ -0,0 +1,76 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.projection.RoomNumberRange;
+import com.roomreservationservice.service.ReservationExpirationScheduler;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.lease.SchedulerLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirationSchedulerTests {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    private ReservationExpirationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ReservationExpirationScheduler(reservationService, schedulerLeaseService,
+                ShardRouter.unsharded(ShardingProperties.UNSHARDED), 500, 2, 4, 3600, 60);
+    }
+
+    @Test
+    void should_skip_run_when_another_instance_holds_the_lease() {
+        Mockito.when(schedulerLeaseService.tryAcquire(Mockito.eq("reservation-expiration"), Mockito.any()))
+                .thenReturn(false);
+
+        scheduler.schedule();
+
+        Mockito.verifyNoInteractions(reservationService);
+        Mockito.verify(schedulerLeaseService, Mockito.never()).release(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void should_cancel_each_room_partition_and_release_the_lease() {
+        Mockito.when(schedulerLeaseService.tryAcquire(Mockito.eq("reservation-expiration"), Mockito.any()))
+                .thenReturn(true);
+        Mockito.when(reservationService.findPendingBankTransferRoomRange(2)).thenReturn(new RoomNumberRange(100, 131));
+        Mockito.when(reservationService.cancelPendingBankTransfers(Mockito.eq(2), Mockito.eq(500), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(3);
+
+        scheduler.schedule();
+
+        Mockito.verify(reservationService).cancelPendingBankTransfers(2, 500, 100, 108);
+        Mockito.verify(reservationService).cancelPendingBankTransfers(2, 500, 108, 116);
+        Mockito.verify(reservationService).cancelPendingBankTransfers(2, 500, 116, 124);
+        Mockito.verify(reservationService).cancelPendingBankTransfers(2, 500, 124, 132);
+        Mockito.verify(schedulerLeaseService).release(Mockito.eq("reservation-expiration"), Mockito.any());
+    }
+
+    @Test
+    void should_release_the_lease_when_the_run_fails() {
+        Mockito.when(schedulerLeaseService.tryAcquire(Mockito.eq("reservation-expiration"), Mockito.any()))
+                .thenReturn(true);
+        Mockito.when(reservationService.findPendingBankTransferRoomRange(2))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        try {
+            scheduler.schedule();
+        } catch (IllegalStateException ignored) {
+            // expected, the lease must still be given back
+        }
+
+        Mockito.verify(schedulerLeaseService).release(Mockito.eq("reservation-expiration"), Mockito.any());
+    }
+}
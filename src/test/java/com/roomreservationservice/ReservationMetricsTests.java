@@ -0,0 +1,81 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.exception.RoomAlreadyBookedException;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationMetricsTests {
+
+    private SimpleMeterRegistry registry;
+
+    private ReservationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ReservationMetrics(registry);
+    }
+
+    @Test
+    void should_tag_confirmation_timer_with_payment_mode_segment_and_status() {
+        metrics.recordConfirmation(metrics.startTimer(), PaymentMode.CASH, RoomSegment.SMALL, ReservationStatus.CONFIRMED, null);
+
+        Timer timer = registry.get("reservation.confirm")
+                .tag("payment.mode", "CASH")
+                .tag("room.segment", "SMALL")
+                .tag("outcome", "CONFIRMED")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void should_tag_failed_confirmation_with_exception_name() {
+        metrics.recordConfirmation(metrics.startTimer(), PaymentMode.CREDIT_CARD, RoomSegment.LARGE, null,
+                new RoomAlreadyBookedException("Room 1 is already booked in the selected period."));
+
+        Timer timer = registry.get("reservation.confirm")
+                .tag("payment.mode", "CREDIT_CARD")
+                .tag("room.segment", "LARGE")
+                .tag("outcome", "FAILED")
+                .tag("exception", "RoomAlreadyBookedException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void should_tag_availability_check_with_its_outcome() {
+        metrics.recordAvailabilityCheck(metrics.startTimer(), true);
+        metrics.recordAvailabilityCheck(metrics.startTimer(), false);
+        metrics.recordAvailabilityCheck(metrics.startTimer(), false);
+
+        assertEquals(1, registry.get("reservation.availability.check").tag("outcome", "AVAILABLE").timer().count());
+        assertEquals(2, registry.get("reservation.availability.check").tag("outcome", "OCCUPIED").timer().count());
+    }
+
+    @Test
+    void should_time_expiration_run_and_count_cancelled_reservations() {
+        metrics.recordExpiration(metrics.startTimer(), 3);
+        metrics.recordExpiration(metrics.startTimer(), 2);
+
+        assertEquals(2, registry.get("reservation.expiration").timer().count());
+        assertEquals(5, registry.get("reservation.expiration.cancelled").counter().count());
+    }
+
+    @Test
+    void should_keep_hold_expiration_apart_from_the_bulk_expiration_run() {
+        metrics.recordHoldExpiration(metrics.startTimer(), 4);
+
+        assertEquals(1, registry.get("reservation.hold.expiration").timer().count());
+        assertEquals(4, registry.get("reservation.hold.expiration.cancelled").counter().count());
+        assertNull(registry.find("reservation.expiration").timer());
+    }
+}
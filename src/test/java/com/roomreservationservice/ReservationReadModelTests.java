@@ -0,0 +1,145 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.exception.NotFoundException;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.model.Reservation;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.projection.ReservationDetails;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationReadModelTests {
+
+    private static final String PROPERTY = "berlin";
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private ReservationReadModel readModel;
+
+    private final LocalDate startDate = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        readModel = new ReservationReadModel(reservationRepository,
+                ShardRouter.unsharded(ShardingProperties.UNSHARDED), 1_000, 300);
+    }
+
+    @Test
+    void should_serve_repeated_lookup_from_cache() {
+        Mockito.when(reservationRepository.findDetailsByIdIn(List.of(1L)))
+                .thenReturn(List.of(details(1L, ReservationStatus.PENDING_PAYMENT)));
+
+        readModel.findById(1L);
+        ReservationDetails details = readModel.findById(1L);
+
+        assertEquals(ReservationStatus.PENDING_PAYMENT, details.reservationStatus());
+        Mockito.verify(reservationRepository, Mockito.times(1)).findDetailsByIdIn(Mockito.any());
+    }
+
+    @Test
+    void should_reload_reservation_after_status_change() {
+        Mockito.when(reservationRepository.findDetailsByIdIn(List.of(1L)))
+                .thenReturn(List.of(details(1L, ReservationStatus.PENDING_PAYMENT)))
+                .thenReturn(List.of(details(1L, ReservationStatus.CONFIRMED)));
+        readModel.findById(1L);
+
+        readModel.statusChanged(List.of(1L));
+
+        assertEquals(ReservationStatus.CONFIRMED, readModel.findById(1L).reservationStatus());
+    }
+
+    @Test
+    void should_keep_cached_customer_lookup_when_only_status_changes() {
+        Mockito.when(reservationRepository.findIdsByPropertyIdAndCustomerName(PROPERTY, "Alex Bill")).thenReturn(List.of(1L));
+        Mockito.when(reservationRepository.findDetailsByIdIn(List.of(1L)))
+                .thenReturn(List.of(details(1L, ReservationStatus.PENDING_PAYMENT)))
+                .thenReturn(List.of(details(1L, ReservationStatus.CANCELLED)));
+        readModel.findByCustomer(PROPERTY, "Alex Bill");
+
+        readModel.statusChanged(List.of(1L));
+        List<ReservationDetails> reservations = readModel.findByCustomer(PROPERTY, "Alex Bill");
+
+        assertEquals(ReservationStatus.CANCELLED, reservations.getFirst().reservationStatus());
+        Mockito.verify(reservationRepository, Mockito.times(1)).findIdsByPropertyIdAndCustomerName(PROPERTY, "Alex Bill");
+    }
+
+    @Test
+    void should_evict_room_schedule_when_overlapping_reservation_is_created() {
+        Mockito.when(reservationRepository.findIdsByPropertyIdAndRoomNumberOverlapping(PROPERTY, 101, startDate, startDate.plusDays(7)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(2L));
+        Mockito.when(reservationRepository.findDetailsByIdIn(List.of(2L)))
+                .thenReturn(List.of(details(2L, ReservationStatus.CONFIRMED)));
+        assertTrue(readModel.findByRoom(PROPERTY, 101, startDate, startDate.plusDays(7)).isEmpty());
+
+        Reservation reservation = new Reservation();
+        reservation.setId(2L);
+        reservation.setPropertyId(PROPERTY);
+        reservation.setRoomNumber(101);
+        reservation.setCustomerName("Alex Bill");
+        reservation.setStartDate(startDate.plusDays(2));
+        reservation.setEndDate(startDate.plusDays(4));
+        readModel.reservationsCreated(List.of(reservation));
+
+        assertEquals(1, readModel.findByRoom(PROPERTY, 101, startDate, startDate.plusDays(7)).size());
+    }
+
+    @Test
+    void should_keep_room_schedules_of_other_rooms_and_periods_when_reservation_is_created() {
+        Mockito.when(reservationRepository.findIdsByPropertyIdAndRoomNumberOverlapping(PROPERTY, 101, startDate, startDate.plusDays(7)))
+                .thenReturn(List.of());
+        Mockito.when(reservationRepository.findIdsByPropertyIdAndRoomNumberOverlapping(PROPERTY, 102, startDate, startDate.plusDays(7)))
+                .thenReturn(List.of());
+        readModel.findByRoom(PROPERTY, 101, startDate, startDate.plusDays(7));
+        readModel.findByRoom(PROPERTY, 102, startDate, startDate.plusDays(7));
+
+        Reservation otherRoom = new Reservation();
+        otherRoom.setPropertyId(PROPERTY);
+        otherRoom.setRoomNumber(103);
+        otherRoom.setCustomerName("Alex Bill");
+        otherRoom.setStartDate(startDate);
+        otherRoom.setEndDate(startDate.plusDays(2));
+        Reservation laterStay = new Reservation();
+        laterStay.setPropertyId(PROPERTY);
+        laterStay.setRoomNumber(101);
+        laterStay.setCustomerName("Alex Bill");
+        laterStay.setStartDate(startDate.plusDays(7));
+        laterStay.setEndDate(startDate.plusDays(9));
+        readModel.reservationsCreated(List.of(otherRoom, laterStay));
+
+        readModel.findByRoom(PROPERTY, 101, startDate, startDate.plusDays(7));
+        readModel.findByRoom(PROPERTY, 102, startDate, startDate.plusDays(7));
+        Mockito.verify(reservationRepository, Mockito.times(1))
+                .findIdsByPropertyIdAndRoomNumberOverlapping(PROPERTY, 101, startDate, startDate.plusDays(7));
+        Mockito.verify(reservationRepository, Mockito.times(1))
+                .findIdsByPropertyIdAndRoomNumberOverlapping(PROPERTY, 102, startDate, startDate.plusDays(7));
+    }
+
+    @Test
+    void should_throw_not_found_when_reservation_does_not_exist() {
+        Mockito.when(reservationRepository.findDetailsByIdIn(List.of(9L))).thenReturn(List.of());
+
+        assertThrows(NotFoundException.class, () -> readModel.findById(9L));
+    }
+
+    private ReservationDetails details(long id, ReservationStatus status) {
+        return new ReservationDetails(id, PROPERTY, 101, "Alex Bill", startDate, startDate.plusDays(3),
+                RoomSegment.MEDIUM, PaymentMode.BANK_TRANSFER, status, 250);
+    }
+}
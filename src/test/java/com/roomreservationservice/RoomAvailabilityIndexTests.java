@@ -0,0 +1,231 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.projection.RoomStay;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAvailabilityIndexTests {
+
+    private static final String PROPERTY = "berlin";
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private RoomAvailabilityIndex availabilityIndex;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new RoomAvailabilityIndex(reservationRepository,
+                new HotelProperties(Map.of(), Map.of(PROPERTY, Map.of(RoomSegment.MEDIUM, List.of(201, 202, 203)))),
+                ShardRouter.unsharded(ShardingProperties.UNSHARDED));
+    }
+
+    @Test
+    void should_report_overlap_for_stays_loaded_at_warm_up() {
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any()))
+                .thenReturn(List.of(new RoomStay(1L, PROPERTY, 101, today.plusDays(2), today.plusDays(5))));
+
+        availabilityIndex.warmUp();
+
+        assertTrue(availabilityIndex.isOccupied(PROPERTY, 101, today.plusDays(4), today.plusDays(6)));
+        assertTrue(availabilityIndex.isOccupied(PROPERTY, 101, today, today.plusDays(3)));
+        assertFalse(availabilityIndex.isOccupied(PROPERTY, 101, today, today.plusDays(2)));
+        assertFalse(availabilityIndex.isOccupied(PROPERTY, 101, today.plusDays(5), today.plusDays(7)));
+        assertFalse(availabilityIndex.isOccupied(PROPERTY, 102, today.plusDays(2), today.plusDays(5)));
+    }
+
+    @Test
+    void should_reclaim_nights_another_replica_has_freed() {
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any()))
+                .thenReturn(List.of(new RoomStay(1L, PROPERTY, 101, today, today.plusDays(3))));
+        availabilityIndex.warmUp();
+        Mockito.when(reservationRepository.existsByPropertyIdAndRoomNumberAndDateRange(PROPERTY, 101, today, today.plusDays(3)))
+                .thenReturn(false);
+
+        assertTrue(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+    }
+
+    @Test
+    void should_reject_hold_when_database_confirms_the_booking() {
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any()))
+                .thenReturn(List.of(new RoomStay(1L, PROPERTY, 101, today, today.plusDays(3))));
+        availabilityIndex.warmUp();
+        Mockito.when(reservationRepository.existsByPropertyIdAndRoomNumberAndDateRange(PROPERTY, 101, today, today.plusDays(3)))
+                .thenReturn(true);
+
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+        assertTrue(availabilityIndex.isOccupied(PROPERTY, 101, today, today.plusDays(3)));
+    }
+
+    @Test
+    void should_refuse_repeated_hold_on_confirmed_booking_without_asking_database_again() {
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any()))
+                .thenReturn(List.of(new RoomStay(1L, PROPERTY, 101, today, today.plusDays(3))));
+        availabilityIndex.warmUp();
+        Mockito.when(reservationRepository.existsByPropertyIdAndRoomNumberAndDateRange(PROPERTY, 101, today, today.plusDays(3)))
+                .thenReturn(true);
+
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(4)));
+
+        Mockito.verify(reservationRepository, Mockito.times(1))
+                .existsByPropertyIdAndRoomNumberAndDateRange(Mockito.any(), Mockito.anyInt(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void should_ask_database_again_once_the_room_changed() {
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any()))
+                .thenReturn(List.of(new RoomStay(1L, PROPERTY, 101, today, today.plusDays(3))));
+        availabilityIndex.warmUp();
+        Mockito.when(reservationRepository.existsByPropertyIdAndRoomNumberAndDateRange(PROPERTY, 101, today, today.plusDays(3)))
+                .thenReturn(true);
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+
+        availabilityIndex.markBooked(PROPERTY, 101, today.plusDays(5), today.plusDays(6));
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+
+        Mockito.verify(reservationRepository, Mockito.times(2))
+                .existsByPropertyIdAndRoomNumberAndDateRange(PROPERTY, 101, today, today.plusDays(3));
+    }
+
+    @Test
+    void should_not_ask_database_when_nights_are_held_on_this_instance() {
+        assertTrue(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today.plusDays(1), today.plusDays(2)));
+        Mockito.verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void should_list_rooms_freed_by_another_replica_in_availability_search() {
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any())).thenReturn(List.of(
+                new RoomStay(1L, PROPERTY, 201, today, today.plusDays(3)),
+                new RoomStay(2L, PROPERTY, 202, today, today.plusDays(3))));
+        availabilityIndex.warmUp();
+        Mockito.when(reservationRepository.findBookedRoomNumbers(Mockito.eq(PROPERTY), Mockito.anyList(),
+                Mockito.eq(today), Mockito.eq(today.plusDays(3)))).thenReturn(List.of(202));
+
+        List<Integer> availableRooms = availabilityIndex.findAvailableRooms(PROPERTY, List.of(201, 202, 203), today, today.plusDays(3));
+
+        assertEquals(List.of(201, 203), availableRooms);
+    }
+
+    @Test
+    void should_leave_rooms_booked_through_another_replica_out_of_availability_search() {
+        Mockito.when(reservationRepository.findBookedRoomNumbers(PROPERTY, List.of(201, 202, 203), today, today.plusDays(3)))
+                .thenReturn(List.of(203));
+
+        List<Integer> availableRooms = availabilityIndex.findAvailableRooms(PROPERTY, List.of(201, 202, 203), today, today.plusDays(3));
+
+        assertEquals(List.of(201, 202), availableRooms);
+    }
+
+    @Test
+    void should_hold_stale_room_of_a_segment_that_looks_full() {
+        Mockito.when(reservationRepository.findActiveStays(Mockito.any())).thenReturn(List.of(
+                new RoomStay(1L, PROPERTY, 201, today, today.plusDays(3)),
+                new RoomStay(2L, PROPERTY, 202, today, today.plusDays(3)),
+                new RoomStay(3L, PROPERTY, 203, today, today.plusDays(3))));
+        availabilityIndex.warmUp();
+        Mockito.when(reservationRepository.findBookedRoomNumbers(Mockito.eq(PROPERTY), Mockito.anyList(),
+                Mockito.eq(today), Mockito.eq(today.plusDays(3)))).thenReturn(List.of(201, 203));
+
+        assertEquals(202, availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, today, today.plusDays(3)));
+    }
+
+    @Test
+    void should_reject_second_hold_on_overlapping_nights() {
+        assertTrue(availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3)));
+        assertFalse(availabilityIndex.tryHold(PROPERTY, 101, today.plusDays(2), today.plusDays(4)));
+        assertTrue(availabilityIndex.tryHold(PROPERTY, 101, today.plusDays(3), today.plusDays(4)));
+    }
+
+    @Test
+    void should_free_nights_when_reservation_is_released() {
+        availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3));
+        availabilityIndex.bind(new RoomStay(7L, PROPERTY, 101, today, today.plusDays(3)));
+
+        availabilityIndex.releaseReservations(List.of(7L));
+
+        assertFalse(availabilityIndex.isOccupied(PROPERTY, 101, today, today.plusDays(3)));
+    }
+
+    @Test
+    void should_list_only_free_rooms_for_availability_search() {
+        availabilityIndex.tryHold(PROPERTY, 101, today, today.plusDays(3));
+        availabilityIndex.tryHold(PROPERTY, 103, today.plusDays(3), today.plusDays(5));
+
+        List<Integer> availableRooms = availabilityIndex.findAvailableRooms(PROPERTY, List.of(101, 102, 103), today.plusDays(1), today.plusDays(3));
+
+        assertEquals(List.of(102, 103), availableRooms);
+    }
+
+    @Test
+    void should_allocate_first_room_of_segment_free_for_whole_stay() {
+        availabilityIndex.tryHold(PROPERTY, 201, today, today.plusDays(2));
+        availabilityIndex.tryHold(PROPERTY, 202, today.plusDays(3), today.plusDays(4));
+
+        int roomNumber = availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, today.plusDays(1), today.plusDays(4));
+
+        assertEquals(203, roomNumber);
+        assertTrue(availabilityIndex.isOccupied(PROPERTY, 203, today.plusDays(1), today.plusDays(4)));
+    }
+
+    @Test
+    void should_reuse_segment_room_once_it_is_released() {
+        assertEquals(201, availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, today, today.plusDays(2)));
+        assertEquals(202, availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, today, today.plusDays(2)));
+
+        availabilityIndex.release(PROPERTY, 201, today, today.plusDays(2));
+
+        assertEquals(201, availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, today.plusDays(1), today.plusDays(2)));
+    }
+
+    @Test
+    void should_report_no_room_when_segment_is_full() {
+        availabilityIndex.tryHold(PROPERTY, 201, today, today.plusDays(5));
+        availabilityIndex.tryHold(PROPERTY, 202, today, today.plusDays(5));
+        availabilityIndex.tryHold(PROPERTY, 203, today.plusDays(4), today.plusDays(6));
+
+        assertEquals(RoomAvailabilityIndex.NO_ROOM,
+                availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, today.plusDays(3), today.plusDays(5)));
+        assertEquals(RoomAvailabilityIndex.NO_ROOM,
+                availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.SMALL, today, today.plusDays(1)));
+    }
+
+    @Test
+    void should_keep_same_room_number_of_different_properties_apart() {
+        assertTrue(availabilityIndex.tryHold(PROPERTY, 201, today, today.plusDays(3)));
+        assertTrue(availabilityIndex.tryHold("paris", 201, today, today.plusDays(3)));
+
+        availabilityIndex.release("paris", 201, today, today.plusDays(3));
+
+        assertTrue(availabilityIndex.isOccupied(PROPERTY, 201, today, today.plusDays(3)));
+        assertFalse(availabilityIndex.isOccupied("paris", 201, today, today.plusDays(3)));
+        assertEquals(202, availabilityIndex.tryHoldAnyRoom(PROPERTY, RoomSegment.MEDIUM, today, today.plusDays(1)));
+        assertEquals(RoomAvailabilityIndex.NO_ROOM,
+                availabilityIndex.tryHoldAnyRoom("paris", RoomSegment.MEDIUM, today, today.plusDays(1)));
+    }
+
+}
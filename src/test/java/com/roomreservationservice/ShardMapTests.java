@@ -0,0 +1,77 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.infrastructure.sharding.ShardMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardMapTests {
+
+    private static final List<String> PROPERTIES = IntStream.range(0, 10_000)
+            .mapToObj(i -> "property-" + i)
+            .toList();
+
+    @Test
+    void should_route_property_to_same_shard_whatever_the_shard_order() {
+        ShardMap shardMap = new ShardMap(List.of("shard-a", "shard-b", "shard-c"), 160, Map.of());
+        ShardMap reordered = new ShardMap(List.of("shard-c", "shard-a", "shard-b"), 160, Map.of());
+
+        PROPERTIES.forEach(propertyId -> assertEquals(shardMap.shardOf(propertyId), reordered.shardOf(propertyId)));
+    }
+
+    @Test
+    void should_spread_properties_over_every_shard() {
+        ShardMap shardMap = new ShardMap(List.of("shard-a", "shard-b", "shard-c"), 160, Map.of());
+
+        Map<String, Long> propertiesByShard = PROPERTIES.stream()
+                .collect(Collectors.groupingBy(shardMap::shardOf, Collectors.counting()));
+
+        assertEquals(Set.of("shard-a", "shard-b", "shard-c"), propertiesByShard.keySet());
+        propertiesByShard.values().forEach(count -> assertTrue(count > 2_500, "Skewed shard with " + count + " properties"));
+    }
+
+    @Test
+    void should_move_only_properties_of_the_new_shard_when_a_shard_is_added() {
+        ShardMap before = new ShardMap(List.of("shard-a", "shard-b", "shard-c"), 160, Map.of());
+        ShardMap after = new ShardMap(List.of("shard-a", "shard-b", "shard-c", "shard-d"), 160, Map.of());
+
+        List<String> moved = PROPERTIES.stream()
+                .filter(propertyId -> !before.shardOf(propertyId).equals(after.shardOf(propertyId)))
+                .toList();
+
+        moved.forEach(propertyId -> assertEquals("shard-d", after.shardOf(propertyId)));
+        assertTrue(moved.size() < PROPERTIES.size() / 3, "Moved " + moved.size() + " properties");
+    }
+
+    @Test
+    void should_keep_pinned_property_on_its_shard() {
+        ShardMap unpinned = new ShardMap(List.of("shard-a", "shard-b"), 160, Map.of());
+        String propertyId = PROPERTIES.stream()
+                .filter(id -> unpinned.shardOf(id).equals("shard-a"))
+                .findFirst()
+                .orElseThrow();
+
+        ShardMap pinned = new ShardMap(List.of("shard-a", "shard-b"), 160, Map.of(propertyId, "shard-b"));
+
+        assertEquals("shard-b", pinned.shardOf(propertyId));
+    }
+
+    @Test
+    void should_reject_property_pinned_to_unknown_shard() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardMap(List.of("shard-a"), 160, Map.of("IST-01", "shard-x")));
+    }
+
+    @Test
+    void should_route_every_property_to_the_only_shard() {
+        ShardMap shardMap = ShardMap.single("main");
+
+        PROPERTIES.forEach(propertyId -> assertEquals("main", shardMap.shardOf(propertyId)));
+    }
+}
@@ -0,0 +1,203 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.config.HoldProperties;
+import com.roomreservationservice.config.HotelProperties;
+import com.roomreservationservice.config.ShardingProperties;
+import com.roomreservationservice.dto.ReservationRequest;
+import com.roomreservationservice.dto.ReservationResponse;
+import com.roomreservationservice.enums.PaymentMode;
+import com.roomreservationservice.enums.ReservationStatus;
+import com.roomreservationservice.enums.RoomSegment;
+import com.roomreservationservice.infrastructure.client.CreditCardPaymentClient;
+import com.roomreservationservice.infrastructure.event.BankTransferPaymentEvent;
+import com.roomreservationservice.infrastructure.metrics.ReservationMetrics;
+import com.roomreservationservice.infrastructure.sharding.ShardRouter;
+import com.roomreservationservice.model.Reservation;
+import com.roomreservationservice.repository.ReservationRepository;
+import com.roomreservationservice.repository.projection.ReservationDetails;
+import com.roomreservationservice.repository.projection.ReservationVersion;
+import com.roomreservationservice.service.ReservationService;
+import com.roomreservationservice.service.availability.RoomAvailabilityIndex;
+import com.roomreservationservice.service.hold.HoldTimer;
+import com.roomreservationservice.service.outbox.ReservationOutbox;
+import com.roomreservationservice.service.paymentstrategy.BankTransferPayment;
+import com.roomreservationservice.service.paymentstrategy.CashPayment;
+import com.roomreservationservice.service.paymentstrategy.CreditCardPayment;
+import com.roomreservationservice.service.paymentstrategy.PaymentStrategyFactory;
+import com.roomreservationservice.service.readmodel.ReservationReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two shards backed by in-memory tables: every call of the repository mock reads or writes the table
+ * of the shard the calling thread is bound to, and inserts take the next value of that shard's sequence.
+ */
+@ExtendWith(MockitoExtension.class)
+class ShardedReservationLookupTests {
+
+    private static final ShardingProperties PROPERTIES = new ShardingProperties(
+            Map.of("shard-a", shard(0), "shard-b", shard(1)), "shard-a", 160,
+            Map.of("IST-01", "shard-a", "AMS-01", "shard-b"));
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private CreditCardPaymentClient creditCardPaymentClient;
+
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    private final Map<String, Map<Long, Reservation>> tables =
+            Map.of("shard-a", new HashMap<>(), "shard-b", new HashMap<>());
+
+    private final Map<String, AtomicLong> sequences =
+            Map.of("shard-a", new AtomicLong(0), "shard-b", new AtomicLong(ShardRouter.ID_BLOCK_SIZE));
+
+    private ShardRouter shardRouter;
+
+    private ReservationReadModel readModel;
+
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        shardRouter = new ShardRouter(PROPERTIES.shardMap(), PROPERTIES.defaultShard(), PROPERTIES.shardsByIdBlock());
+        PaymentStrategyFactory factory =
+                new PaymentStrategyFactory(List.of(
+                        new CashPayment(),
+                        new CreditCardPayment(creditCardPaymentClient, false),
+                        new BankTransferPayment()
+                ));
+        readModel = new ReservationReadModel(reservationRepository, shardRouter, 1_000, 300);
+
+        reservationService = new ReservationService(
+                reservationRepository,
+                factory,
+                new RoomAvailabilityIndex(reservationRepository, new HotelProperties(Map.of(), Map.of()), shardRouter),
+                TransactionOperations.withoutTransaction(),
+                new ReservationMetrics(new SimpleMeterRegistry()),
+                reservationOutbox,
+                readModel,
+                new HoldTimer(reservationRepository, new HoldProperties(Map.of()), shardRouter, 1000),
+                shardRouter
+        );
+    }
+
+    @Test
+    void should_find_reservations_inserted_through_two_shards_on_the_shard_of_their_id() {
+        stubInserts();
+        stubDetailsLookups();
+        stubFindById();
+
+        ReservationResponse istanbul = reservationService.confirmReservation(request("IST-01"));
+        ReservationResponse amsterdam = reservationService.confirmReservation(request("AMS-01"));
+
+        assertTrue(tables.get("shard-a").containsKey(istanbul.reservationId()));
+        assertTrue(tables.get("shard-b").containsKey(amsterdam.reservationId()));
+        assertEquals("IST-01", readModel.findById(istanbul.reservationId()).propertyId());
+        assertEquals("AMS-01", readModel.findById(amsterdam.reservationId()).propertyId());
+        assertTrue(reservationService.handleBankTransferPayment(payment(amsterdam.reservationId())));
+        assertEquals(ReservationStatus.CONFIRMED, tables.get("shard-b").get(amsterdam.reservationId()).getStatus());
+
+        // Each lookup was answered by the shard of the id's block without asking the other one.
+        Mockito.verify(reservationRepository, Mockito.times(2)).findDetailsByIdIn(Mockito.any());
+        Mockito.verify(reservationRepository, Mockito.times(1)).findById(Mockito.anyLong());
+    }
+
+    @Test
+    void should_find_reservation_whose_id_lies_outside_its_shards_block_on_the_other_shards() {
+        stubInserts();
+        stubDetailsLookups();
+        stubFindAllById();
+        Mockito.when(reservationRepository.updateStatusByIdsAndStatus(
+                Mockito.anyList(), Mockito.eq(ReservationStatus.PENDING_PAYMENT), Mockito.eq(ReservationStatus.CONFIRMED)))
+                .thenReturn(1);
+        Mockito.when(reservationRepository.findVersionsByIdInAndStatus(Mockito.anyList(), Mockito.eq(ReservationStatus.CONFIRMED)))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                        .map(id -> new ReservationVersion(id, 1L))
+                        .toList());
+
+        // Written through shard-b with an id of shard-a's block, as ids were before each shard drew its own.
+        sequences.get("shard-b").set(4145477L);
+        ReservationResponse amsterdam = reservationService.confirmReservation(request("AMS-01"));
+        assertEquals("shard-a", shardRouter.shardOfId(amsterdam.reservationId()));
+
+        assertEquals("AMS-01", readModel.findById(amsterdam.reservationId()).propertyId());
+        assertEquals(1, reservationService.handleBankTransferPayments(List.of(payment(amsterdam.reservationId()))));
+    }
+
+    private void stubInserts() {
+        Mockito.when(reservationRepository.save(Mockito.any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            String shard = ShardRouter.boundShard();
+            if (reservation.getId() == 0) reservation.setId(sequences.get(shard).incrementAndGet());
+            if (reservation.getVersion() == null) reservation.setVersion(ReservationOutbox.INITIAL_VERSION);
+            tables.get(shard).put(reservation.getId(), reservation);
+            return reservation;
+        });
+    }
+
+    private void stubDetailsLookups() {
+        Mockito.when(reservationRepository.findDetailsByIdIn(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return boundTable(ids).stream().map(ShardedReservationLookupTests::details).toList();
+        });
+    }
+
+    private void stubFindById() {
+        Mockito.when(reservationRepository.findById(Mockito.anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(tables.get(ShardRouter.boundShard()).get(invocation.<Long>getArgument(0))));
+    }
+
+    private void stubFindAllById() {
+        Mockito.when(reservationRepository.findAllById(Mockito.anyIterable())).thenAnswer(invocation ->
+                boundTable(invocation.getArgument(0)));
+    }
+
+    private List<Reservation> boundTable(Iterable<Long> ids) {
+        Map<Long, Reservation> table = tables.get(ShardRouter.boundShard());
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(table::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static ReservationRequest request(String propertyId) {
+        return new ReservationRequest(propertyId, 101, "Berkan", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3),
+                RoomSegment.SMALL, PaymentMode.BANK_TRANSFER, null, 100);
+    }
+
+    private static BankTransferPaymentEvent payment(long reservationId) {
+        return new BankTransferPaymentEvent(null, 1, 1, 100, "1401541457 P" + reservationId);
+    }
+
+    private static ReservationDetails details(Reservation reservation) {
+        return new ReservationDetails(reservation.getId(), reservation.getPropertyId(), reservation.getRoomNumber(),
+                reservation.getCustomerName(), reservation.getStartDate(), reservation.getEndDate(),
+                reservation.getRoomSegment(), reservation.getPaymentMode(), reservation.getStatus(),
+                reservation.getTotalAmount());
+    }
+
+    private static ShardingProperties.Shard shard(long idBlock) {
+        return new ShardingProperties.Shard("jdbc:postgresql://localhost:5432/reservation_service_db",
+                "postgres", "postgres", 0, idBlock);
+    }
+}
@@ -0,0 +1,61 @@
+package com.roomreservationservice;
+
+import com.roomreservationservice.service.hold.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTests {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void should_fire_timers_once_their_deadline_is_reached() {
+        TimerWheel wheel = new TimerWheel(TICK, 8, 3, 0);
+        wheel.schedule(1, 3_000);
+        wheel.schedule(2, 5_000);
+
+        assertTrue(wheel.advanceTo(2_999).isEmpty());
+        assertEquals(List.of(1L), ids(wheel.advanceTo(3_000)));
+        assertTrue(wheel.advanceTo(4_000).isEmpty());
+        assertEquals(List.of(2L), ids(wheel.advanceTo(5_500)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void should_cascade_timers_from_higher_levels_and_the_overflow() {
+        TimerWheel wheel = new TimerWheel(TICK, 8, 2, 0);
+        wheel.schedule(1, 20_000);   // level 1
+        wheel.schedule(2, 100_000);  // beyond 8 * 8 ticks, waits in the overflow
+
+        assertTrue(wheel.advanceTo(19_000).isEmpty());
+        assertEquals(List.of(1L), ids(wheel.advanceTo(20_000)));
+        assertTrue(wheel.advanceTo(99_000).isEmpty());
+        assertEquals(List.of(2L), ids(wheel.advanceTo(100_000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void should_fire_past_deadlines_on_the_next_advance() {
+        TimerWheel wheel = new TimerWheel(TICK, 8, 2, 10_000);
+        wheel.schedule(1, 5_000);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), ids(wheel.advanceTo(10_000)));
+    }
+
+    @Test
+    void should_round_deadlines_up_to_the_next_tick() {
+        TimerWheel wheel = new TimerWheel(TICK, 8, 2, 0);
+        wheel.schedule(1, 1_500);
+
+        assertTrue(wheel.advanceTo(1_999).isEmpty());
+        assertEquals(List.of(1L), ids(wheel.advanceTo(2_000)));
+    }
+
+    private static List<Long> ids(List<TimerWheel.Timer> timers) {
+        return timers.stream().map(TimerWheel.Timer::id).toList();
+    }
+}